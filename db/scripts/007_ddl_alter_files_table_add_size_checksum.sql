@@ -0,0 +1,2 @@
+alter table files add column size bigint;
+alter table files add column checksum varchar;
@@ -0,0 +1,2 @@
+create index vacancies_file_id_idx on vacancies (file_id);
+create index candidates_file_id_idx on candidates (file_id);
@@ -0,0 +1,2 @@
+create index vacancies_visible_city_id_creation_date_idx on vacancies (visible, city_id, creation_date desc, id desc);
+create index vacancies_creation_date_idx on vacancies (creation_date desc, id desc);
@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+--changeset job4j:011_ddl_add_search_vectors dbms:postgresql
+alter table vacancies add column search_vector tsvector generated always as (
+    setweight(to_tsvector('russian', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+) stored;
+create index vacancies_search_vector_idx on vacancies using gin (search_vector);
+alter table candidates add column search_vector tsvector generated always as (
+    setweight(to_tsvector('russian', coalesce(name, '')), 'A')
+        || setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+) stored;
+create index candidates_search_vector_idx on candidates using gin (search_vector);
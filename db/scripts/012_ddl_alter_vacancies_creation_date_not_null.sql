@@ -0,0 +1,2 @@
+update vacancies set creation_date = now() where creation_date is null;
+alter table vacancies alter column creation_date set not null;
@@ -0,0 +1,105 @@
+package ru.job4j.dreamjob.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * Сравнивает результаты JMH с сохранённой базой: время на операцию и выделенные байты на операцию (gc.alloc.rate.norm).
+ * Регрессией считается только выход за допуск с учётом доверительных интервалов обоих замеров, иначе шум одного прогона
+ * валил бы сборку. Время заметно зависит от машины, поэтому допуск для него шире; выделение памяти от машины почти не зависит.
+ * Базу обновляют, копируя target/jmh-result.json в src/jmh/baseline.json после осознанного изменения.
+ */
+public final class BaselineCheck {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    /* небольшие колебания выделения у операций, которые почти ничего не выделяют, регрессией не считаются */
+    private static final double ALLOCATION_SLACK_BYTES = 64;
+
+    private BaselineCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        var baseline = read(Path.of(args[0]));
+        var current = read(Path.of(args[1]));
+        var timeTolerance = Double.parseDouble(args[2]);
+        var allocationTolerance = Double.parseDouble(args[3]);
+        var regressions = 0;
+        for (var entry : current.entrySet()) {
+            var base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf("%-80s not in baseline%n", entry.getKey());
+                continue;
+            }
+            var result = entry.getValue();
+            var isSlower = result.score - result.scoreError > (base.score + base.scoreError) * (1 + timeTolerance);
+            var allocatesMore = result.allocation - result.allocationError
+                    > (base.allocation + base.allocationError) * (1 + allocationTolerance) + ALLOCATION_SLACK_BYTES;
+            System.out.printf("%-80s %12.3f -> %12.3f %s %12.1f -> %12.1f B/op%s%n", entry.getKey(),
+                    base.score, result.score, result.unit, base.allocation, result.allocation,
+                    isSlower || allocatesMore ? "  REGRESSION" : "");
+            if (isSlower || allocatesMore) {
+                regressions++;
+            }
+        }
+        if (regressions > 0) {
+            System.out.println("Regressions against baseline: " + regressions);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(Path path) throws IOException {
+        var results = new LinkedHashMap<String, Result>();
+        for (var run : new ObjectMapper().readTree(path.toFile())) {
+            var key = run.get("benchmark").asText() + (run.has("params") ? " " + run.get("params") : "");
+            var primary = run.get("primaryMetric");
+            var allocation = findAllocation(run.get("secondaryMetrics"));
+            results.put(key, new Result(primary.get("score").asDouble(), errorOf(primary), primary.get("scoreUnit").asText(),
+                    allocation == null ? 0 : allocation.get("score").asDouble(), allocation == null ? 0 : errorOf(allocation)));
+        }
+        return results;
+    }
+
+    private static JsonNode findAllocation(JsonNode secondaryMetrics) {
+        var names = secondaryMetrics.fieldNames();
+        while (names.hasNext()) {
+            var name = names.next();
+            if (name.endsWith(ALLOCATION_METRIC)) {
+                return secondaryMetrics.get(name);
+            }
+        }
+        return null;
+    }
+
+    /* при одной итерации JMH пишет NaN вместо погрешности */
+    private static double errorOf(JsonNode metric) {
+        var error = metric.path("scoreError").asDouble();
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static final class Result {
+
+        private final double score;
+
+        private final double scoreError;
+
+        private final String unit;
+
+        private final double allocation;
+
+        private final double allocationError;
+
+        private Result(double score, double scoreError, String unit, double allocation, double allocationError) {
+            this.score = score;
+            this.scoreError = scoreError;
+            this.unit = unit;
+            this.allocation = allocation;
+            this.allocationError = allocationError;
+        }
+    }
+}
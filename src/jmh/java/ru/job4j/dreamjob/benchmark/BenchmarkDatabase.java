@@ -0,0 +1,44 @@
+package ru.job4j.dreamjob.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.configuration.ConnectionPoolProperties;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.metrics.StatementMetrics;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Properties;
+
+/*
+ * Бенчмарки работают с той же встроенной H2, что и тесты репозиториев: схему создаёт liquibase на этапе process-resources.
+ * Таблицы очищаются в конце каждого прогона, как в тестах.
+ */
+final class BenchmarkDatabase {
+
+    private BenchmarkDatabase() {
+    }
+
+    static Sql2o open() {
+        var properties = new Properties();
+        try (var inputStream = BenchmarkDatabase.class.getClassLoader().getResourceAsStream("connection.properties")) {
+            properties.load(inputStream);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        var configuration = new DatasourceConfiguration();
+        var datasource = configuration.connectionPool(properties.getProperty("datasource.url"),
+                properties.getProperty("datasource.username"), properties.getProperty("datasource.password"),
+                new ConnectionPoolProperties());
+        return configuration.databaseClient(datasource,
+                new StatementMetrics(new SimpleMeterRegistry(), Duration.ofSeconds(1), 100));
+    }
+
+    static void clear(Sql2o sql2o, String... tables) {
+        try (var connection = sql2o.open()) {
+            for (var table : tables) {
+                connection.createQuery("DELETE FROM " + table).executeUpdate();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package ru.job4j.dreamjob.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.cache.FileCache;
+import ru.job4j.dreamjob.configuration.FileStorageProperties;
+import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.metrics.FileMetrics;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.repository.Sql2oFileRepository;
+import ru.job4j.dreamjob.service.AsyncFileWriter;
+import ru.job4j.dreamjob.service.SimpleFileService;
+import ru.job4j.dreamjob.service.ThumbnailService;
+import ru.job4j.dreamjob.service.ThumbnailSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileServiceBenchmark {
+
+    private static final long CACHE_BYTES = 64 * 1024 * 1024;
+
+    /* false - каждый getFileById идёт в базу и читает файл с диска */
+    @Param({"true", "false"})
+    private boolean cached;
+
+    @Param("4096")
+    private int size;
+
+    private Sql2o sql2o;
+
+    private byte[] content;
+
+    private Path directory;
+
+    private AsyncFileWriter fileWriter;
+
+    private SimpleFileService fileService;
+
+    private int fileId;
+
+    @Setup(Level.Trial)
+    public void openDatabase() {
+        sql2o = BenchmarkDatabase.open();
+        content = new byte[size];
+        ThreadLocalRandom.current().nextBytes(content);
+    }
+
+    /* save пишет новый файл на каждый вызов, поэтому каталог и таблица files очищаются после каждой итерации */
+    @Setup(Level.Iteration)
+    public void createService() throws IOException {
+        directory = Files.createTempDirectory("dreamjob-benchmark");
+        fileWriter = new AsyncFileWriter(2, 1000);
+        var fileCache = cached ? new FileCache(CACHE_BYTES, CACHE_BYTES) : new FileCache(0, 0);
+        fileService = new SimpleFileService(new Sql2oFileRepository(sql2o), new FileStorageProperties(directory.toString(), false, 2),
+                fileCache, new NoThumbnailService(), fileWriter, new FileMetrics(new SimpleMeterRegistry()));
+        var file = fileService.save("benchmark.bin", new ByteArrayInputStream(content));
+        fileId = file.getId();
+        /* getFileById измеряется на уже перенесённом в хранилище файле, а не на промежуточном */
+        while (fileWriter.findPending(file.getPath()).isPresent()) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteFiles() throws Exception {
+        fileWriter.shutdown();
+        BenchmarkDatabase.clear(sql2o, "files");
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public File save() {
+        return fileService.save("benchmark.bin", new ByteArrayInputStream(content));
+    }
+
+    @Benchmark
+    public Optional<FileDto> getFileById() {
+        return fileService.getFileById(fileId);
+    }
+
+    /* миниатюры строятся в фоновых потоках и к измеряемому пути не относятся */
+    private static final class NoThumbnailService implements ThumbnailService {
+
+        @Override
+        public void generate(File file) {
+        }
+
+        @Override
+        public Optional<Path> findThumbnail(File file, ThumbnailSize size) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void deleteThumbnails(String originalPath) {
+        }
+
+        @Override
+        public Optional<String> findOriginalPath(String thumbnailPath) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package ru.job4j.dreamjob.benchmark;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.job4j.dreamjob.Main;
+import ru.job4j.dreamjob.cache.LoopbackInvalidationBus;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.Sql2oVacancyRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Нагрузочное сравнение режимов server.threads.mode: приложение поднимается в этом же процессе на встроенной H2,
+ * для каждого режима заново. concurrency клиентов без пауз выполняют requests запросов GET path от имени
+ * зарегистрированного пользователя. Аргументы: requests concurrency path mode...
+ */
+public final class LoadTest {
+
+    private static final int WARMUP_REQUESTS = 500;
+
+    private static final int VACANCIES = 1000;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        var requests = Integer.parseInt(args[0]);
+        var concurrency = Integer.parseInt(args[1]);
+        var path = args[2];
+        var modes = Arrays.copyOfRange(args, 3, args.length);
+        /* devtools иначе перезапускает LoadTest.main с аргументами приложения */
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        var sql2o = BenchmarkDatabase.open();
+        var vacancies = new ArrayList<Vacancy>(VACANCIES);
+        for (int i = 0; i < VACANCIES; i++) {
+            vacancies.add(new Vacancy(0, "Vacancy " + i, "Load test", LocalDateTime.now(), true, 1, 0));
+        }
+        new Sql2oVacancyRepository(sql2o, new LoopbackInvalidationBus()).saveAll(vacancies);
+        try {
+            System.out.printf("%-10s %10s %10s %10s %10s %10s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+            for (var mode : modes) {
+                System.out.println(run(mode, requests, concurrency, path));
+            }
+        } finally {
+            BenchmarkDatabase.clear(sql2o, "vacancies", "users");
+        }
+    }
+
+    private static String run(String mode, int requests, int concurrency, String path) throws Exception {
+        var context = startApplication(mode);
+        try {
+            var baseUri = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            var client = HttpClient.newBuilder()
+                    .cookieHandler(new CookieManager())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            register(client, baseUri, mode);
+            var uri = URI.create(baseUri + path);
+            send(client, uri, WARMUP_REQUESTS, Math.min(concurrency, 16));
+            var started = System.nanoTime();
+            var result = send(client, uri, requests, concurrency);
+            var seconds = (System.nanoTime() - started) / 1e9;
+            var latencies = result.latencies;
+            latencies.sort(null);
+            return String.format(Locale.ROOT, "%-10s %10.0f %10.2f %10.2f %10.2f %10d", mode, requests / seconds,
+                    percentile(latencies, 0.5), percentile(latencies, 0.99), latencies.get(latencies.size() - 1),
+                    result.errors.get());
+        } finally {
+            context.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String mode) throws IOException {
+        var properties = new Properties();
+        try (InputStream inputStream = LoadTest.class.getClassLoader().getResourceAsStream("connection.properties")) {
+            properties.load(inputStream);
+        }
+        return SpringApplication.run(Main.class,
+                "--server.port=0",
+                "--management.server.port=-1",
+                "--server.threads.mode=" + mode,
+                "--datasource.url=" + properties.getProperty("datasource.url"),
+                "--datasource.username=" + properties.getProperty("datasource.username"),
+                "--datasource.password=" + properties.getProperty("datasource.password"),
+                "--file.directory=target/load-test-files",
+                "--file.gc.enabled=false",
+                "--cache.invalidation.bus=loopback",
+                "--search.engine=memory",
+                "--tracing.export.file=",
+                "--logging.level.root=WARN",
+                "--logging.level.ru.job4j.dreamjob.metrics.StatementMetrics=ERROR");
+    }
+
+    private static void register(HttpClient client, String baseUri, String mode) throws IOException, InterruptedException {
+        var form = "email=" + URLEncoder.encode("load-" + mode + "@dreamjob.ru", StandardCharsets.UTF_8)
+                + "&name=load&password=password";
+        var request = HttpRequest.newBuilder(URI.create(baseUri + "/users/register"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static Result send(HttpClient client, URI uri, int requests, int concurrency)
+            throws InterruptedException, ExecutionException {
+        var remaining = new AtomicInteger(requests);
+        var result = new Result();
+        var executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            var futures = new ArrayList<Future<List<Double>>>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> {
+                    var latencies = new ArrayList<Double>();
+                    var request = HttpRequest.newBuilder(uri).GET().build();
+                    while (remaining.getAndDecrement() > 0) {
+                        var started = System.nanoTime();
+                        try {
+                            var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                result.errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            result.errors.incrementAndGet();
+                        }
+                        latencies.add((System.nanoTime() - started) / 1e6);
+                    }
+                    return latencies;
+                }));
+            }
+            for (var future : futures) {
+                result.latencies.addAll(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return result;
+    }
+
+    private static double percentile(List<Double> sorted, double percentile) {
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.round(percentile * sorted.size())));
+    }
+
+    private static final class Result {
+
+        private final List<Double> latencies = new ArrayList<>();
+
+        private final AtomicInteger errors = new AtomicInteger();
+    }
+}
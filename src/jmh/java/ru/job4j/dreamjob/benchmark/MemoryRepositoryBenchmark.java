@@ -0,0 +1,83 @@
+package ru.job4j.dreamjob.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.MemoryCandidateRepository;
+import ru.job4j.dreamjob.repository.MemoryVacancyRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryRepositoryBenchmark {
+
+    private static final LocalDateTime CREATION_DATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Param("1000")
+    private int rows;
+
+    private MemoryVacancyRepository vacancyRepository;
+
+    private MemoryCandidateRepository candidateRepository;
+
+    /* save копит записи, поэтому репозитории пересоздаются на каждой итерации, иначе размер карты рос бы от итерации к итерации */
+    @Setup(Level.Iteration)
+    public void fillRepositories() {
+        vacancyRepository = new MemoryVacancyRepository();
+        candidateRepository = new MemoryCandidateRepository();
+        for (int i = 0; i < rows; i++) {
+            vacancyRepository.save(new Vacancy(0, "Java Developer " + i, "Spring", CREATION_DATE, true, 1, 0));
+            candidateRepository.save(new Candidate(0, "Candidate " + i, "Java", CREATION_DATE, 1, 0));
+        }
+    }
+
+    @Benchmark
+    public Collection<Vacancy> vacancyFindAll() {
+        return vacancyRepository.findAll();
+    }
+
+    @Benchmark
+    public Optional<Vacancy> vacancyFindById() {
+        return vacancyRepository.findById(1 + ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    @Benchmark
+    public Vacancy vacancySave() {
+        return vacancyRepository.save(new Vacancy(0, "Java Developer", "Spring", CREATION_DATE, true, 1, 0));
+    }
+
+    @Benchmark
+    public Collection<Candidate> candidateFindAll() {
+        return candidateRepository.findAll();
+    }
+
+    @Benchmark
+    public Optional<Candidate> candidateFindById() {
+        return candidateRepository.findById(1 + ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    @Benchmark
+    public Candidate candidateSave() {
+        return candidateRepository.save(new Candidate(0, "Candidate", "Java", CREATION_DATE, 1, 0));
+    }
+}
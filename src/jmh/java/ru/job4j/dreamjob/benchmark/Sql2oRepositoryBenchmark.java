@@ -0,0 +1,99 @@
+package ru.job4j.dreamjob.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.cache.LoopbackInvalidationBus;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.User;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.Sql2oFileRepository;
+import ru.job4j.dreamjob.repository.Sql2oUserRepository;
+import ru.job4j.dreamjob.repository.Sql2oVacancyRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Sql2oRepositoryBenchmark {
+
+    private static final String EMAIL = "benchmark@dreamjob.ru";
+
+    private static final String PASSWORD = "password";
+
+    @Param("1000")
+    private int rows;
+
+    private Sql2o sql2o;
+
+    private Sql2oVacancyRepository vacancyRepository;
+
+    private Sql2oUserRepository userRepository;
+
+    private int firstId;
+
+    private int fileId;
+
+    @Setup
+    public void fillTables() {
+        sql2o = BenchmarkDatabase.open();
+        vacancyRepository = new Sql2oVacancyRepository(sql2o, new LoopbackInvalidationBus());
+        userRepository = new Sql2oUserRepository(sql2o);
+        fileId = new Sql2oFileRepository(sql2o).save(new File("benchmark", "benchmark")).getId();
+        var vacancies = new ArrayList<Vacancy>(rows);
+        for (int i = 0; i < rows; i++) {
+            vacancies.add(newVacancy(i));
+        }
+        firstId = vacancyRepository.saveAll(vacancies).iterator().next().getId();
+        userRepository.save(new User(EMAIL, "benchmark", PASSWORD));
+    }
+
+    @TearDown
+    public void clearTables() {
+        BenchmarkDatabase.clear(sql2o, "vacancies", "files", "users");
+    }
+
+    @Benchmark
+    public Collection<Vacancy> vacancyFindAll() {
+        return vacancyRepository.findAll();
+    }
+
+    @Benchmark
+    public Optional<Vacancy> vacancyFindById() {
+        return vacancyRepository.findById(firstId + ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    @Benchmark
+    public Vacancy vacancySave() {
+        return vacancyRepository.save(newVacancy(0));
+    }
+
+    @Benchmark
+    public Optional<User> userFindByEmailAndPassword() {
+        return userRepository.findByEmailAndPassword(EMAIL, PASSWORD);
+    }
+
+    private Vacancy newVacancy(int number) {
+        return new Vacancy(0, "Java Developer " + number, "Spring Boot, PostgreSQL, sql2o",
+                LocalDateTime.now(), true, 1, fileId);
+    }
+}
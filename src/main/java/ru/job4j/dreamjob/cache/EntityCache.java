@@ -0,0 +1,192 @@
+package ru.job4j.dreamjob.cache;
+
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+/*
+ * LRU-кеш сущностей по идентификатору, ограниченный числом записей и временем жизни.
+ * Одновременные промахи по одному ключу ждут одну загрузку из базы.
+ * Загрузка, начатая до invalidate, свой результат в кеш не кладёт, чтобы не вернуть устаревшую строку.
+ */
+@ThreadSafe
+public class EntityCache<T> {
+
+    private final boolean enabled;
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final LongSupplier ticker;
+
+    @GuardedBy("this")
+    private final Map<Integer, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<Integer, CompletableFuture<Optional<T>>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public EntityCache(boolean enabled, int maxSize, long ttlMillis) {
+        this(enabled, maxSize, ttlMillis, System::nanoTime);
+    }
+
+    EntityCache(boolean enabled, int maxSize, long ttlMillis, LongSupplier ticker) {
+        this.enabled = enabled && maxSize > 0 && ttlMillis > 0;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.ticker = ticker;
+    }
+
+    public Optional<T> get(int id, IntFunction<Optional<T>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        var cached = lookup(id);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+        misses.incrementAndGet();
+        var loadGeneration = generation.get();
+        var future = new CompletableFuture<Optional<T>>();
+        var inFlight = loading.putIfAbsent(id, future);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            var value = loader.apply(id);
+            value.ifPresent(entity -> store(id, entity, loadGeneration));
+            future.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(id, future);
+        }
+    }
+
+    /* внутри транзакции запись удаляется ещё раз после её завершения: до фиксации другой поток мог прочитать старую строку */
+    public void invalidate(int id) {
+        if (!enabled) {
+            return;
+        }
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    /* вызывается и шиной инвалидации, когда строку изменил другой узел */
+    public void evict(int id) {
+        generation.incrementAndGet();
+        synchronized (this) {
+            entries.remove(id);
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        synchronized (this) {
+            entries.clear();
+        }
+    }
+
+    private synchronized T lookup(int id) {
+        var entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (ticker.getAsLong() - entry.expiresAt > 0) {
+            entries.remove(id);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private synchronized void store(int id, T value, long loadGeneration) {
+        if (loadGeneration != generation.get()) {
+            return;
+        }
+        entries.put(id, new Entry<>(value, ticker.getAsLong() + ttlNanos));
+        var iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static <T> Optional<T> await(CompletableFuture<Optional<T>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public double getHitRatio() {
+        var hitCount = hits.get();
+        var total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private static final class Entry<T> {
+
+        private final T value;
+
+        private final long expiresAt;
+
+        private Entry(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.job4j.dreamjob.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.jcip.annotations.GuardedBy;
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.dto.FileResourceDto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * LRU-кеш содержимого файлов, ограниченный суммарным размером в байтах.
+ * Файлы больше maxEntryBytes не кешируются и отдаются потоком с диска.
+ * Ключ составляет сервис: идентификатор файла и, для уменьшенных копий, их размер.
+ * Как MeterBinder кеш публикует попадания, промахи и вытеснения в реестр метрик Spring Boot.
+ */
+@Component
+@ThreadSafe
+public class FileCache implements MeterBinder {
+
+    private final long maxBytes;
+
+    private final long maxEntryBytes;
+
+    @GuardedBy("this")
+    private final Map<String, FileResourceDto> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    @GuardedBy("this")
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public FileCache(@Value("${file.cache.max-bytes:67108864}") long maxBytes,
+                     @Value("${file.cache.max-entry-bytes:1048576}") long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+    }
+
+    public synchronized Optional<FileResourceDto> get(String key) {
+        var file = entries.get(key);
+        if (file == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+        hits.incrementAndGet();
+        return Optional.of(file);
+    }
+
+    public boolean isCacheable(long size) {
+        return size <= maxEntryBytes;
+    }
+
+    public synchronized void put(String key, FileResourceDto file) {
+        if (!isCacheable(file.getSize())) {
+            return;
+        }
+        invalidate(key);
+        entries.put(key, file);
+        totalBytes += file.getSize();
+        var iterator = entries.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            totalBytes -= iterator.next().getSize();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized void invalidate(String key) {
+        var file = entries.remove(key);
+        if (file != null) {
+            totalBytes -= file.getSize();
+        }
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("dreamjob.file.cache.hits", hits, AtomicLong::get)
+                .description("File cache lookups served from memory")
+                .register(registry);
+        FunctionCounter.builder("dreamjob.file.cache.misses", misses, AtomicLong::get)
+                .description("File cache lookups that went to the storage")
+                .register(registry);
+        FunctionCounter.builder("dreamjob.file.cache.evictions", evictions, AtomicLong::get)
+                .description("Files evicted from the cache to stay within the size budget")
+                .register(registry);
+        Gauge.builder("dreamjob.file.cache.size", this, FileCache::getTotalBytes)
+                .description("Bytes held in the file cache")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.job4j.dreamjob.cache;
+
+import java.util.function.IntConsumer;
+
+/*
+ * Рассылка идентификаторов изменённых строк кешам всех узлов.
+ * onReset вызывается, когда часть сообщений могла быть потеряна, и кеш должен очиститься целиком.
+ */
+public interface InvalidationBus {
+
+    void publish(InvalidationTopic topic, int id);
+
+    void subscribe(InvalidationTopic topic, IntConsumer onInvalidate, Runnable onReset);
+}
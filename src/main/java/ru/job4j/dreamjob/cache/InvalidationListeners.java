@@ -0,0 +1,39 @@
+package ru.job4j.dreamjob.cache;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+
+/* подписчики шины по темам; подписка идёт при старте, рассылка - на каждое изменение, поэтому списки копируются при записи */
+@ThreadSafe
+final class InvalidationListeners {
+
+    private final Map<InvalidationTopic, List<IntConsumer>> invalidators = new EnumMap<>(InvalidationTopic.class);
+
+    private final List<Runnable> resetters = new CopyOnWriteArrayList<>();
+
+    InvalidationListeners() {
+        for (var topic : InvalidationTopic.values()) {
+            invalidators.put(topic, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    void add(InvalidationTopic topic, IntConsumer onInvalidate, Runnable onReset) {
+        invalidators.get(topic).add(onInvalidate);
+        resetters.add(onReset);
+    }
+
+    void invalidate(InvalidationTopic topic, int id) {
+        for (var invalidator : invalidators.get(topic)) {
+            invalidator.accept(id);
+        }
+    }
+
+    void resetAll() {
+        resetters.forEach(Runnable::run);
+    }
+}
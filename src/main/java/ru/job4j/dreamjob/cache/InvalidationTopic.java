@@ -0,0 +1,6 @@
+package ru.job4j.dreamjob.cache;
+
+public enum InvalidationTopic {
+    VACANCIES,
+    CANDIDATES
+}
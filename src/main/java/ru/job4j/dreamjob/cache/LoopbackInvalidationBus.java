@@ -0,0 +1,37 @@
+package ru.job4j.dreamjob.cache;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.IntConsumer;
+
+/* шина в пределах одного процесса для тестов и запуска на H2; как и NOTIFY, сообщение доставляется после фиксации */
+@Component
+@ThreadSafe
+@ConditionalOnProperty(name = "cache.invalidation.bus", havingValue = "loopback")
+public class LoopbackInvalidationBus implements InvalidationBus {
+
+    private final InvalidationListeners listeners = new InvalidationListeners();
+
+    @Override
+    public void publish(InvalidationTopic topic, int id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            listeners.invalidate(topic, id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                listeners.invalidate(topic, id);
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(InvalidationTopic topic, IntConsumer onInvalidate, Runnable onReset) {
+        listeners.add(topic, onInvalidate, onReset);
+    }
+}
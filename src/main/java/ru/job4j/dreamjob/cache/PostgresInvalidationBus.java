@@ -0,0 +1,149 @@
+package ru.job4j.dreamjob.cache;
+
+import net.jcip.annotations.ThreadSafe;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.sql2o.Sql2o;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.function.IntConsumer;
+
+/*
+ * Шина на LISTEN/NOTIFY. pg_notify выполняется на соединении текущей транзакции,
+ * поэтому PostgreSQL рассылает сообщение только после фиксации, а откаченные изменения никого не задевают.
+ * Слушатель держит отдельное соединение вне пула, иначе пул закрыл бы его как брошенное.
+ * Пока соединение слушателя было разорвано, сообщения терялись, поэтому после переподключения кеши очищаются.
+ * Любая ошибка в цикле, не только SQLException, ведёт к переподключению, а не к остановке потока.
+ */
+@Component
+@ThreadSafe
+@ConditionalOnProperty(name = "cache.invalidation.bus", havingValue = "postgres", matchIfMissing = true)
+public class PostgresInvalidationBus implements InvalidationBus {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostgresInvalidationBus.class);
+
+    private static final String CHANNEL = "dreamjob_invalidation";
+
+    private static final String SEPARATOR = ":";
+
+    private final InvalidationListeners listeners = new InvalidationListeners();
+
+    private final Sql2o sql2o;
+
+    private final String url;
+
+    private final String username;
+
+    private final String password;
+
+    private final int pollTimeoutMillis;
+
+    private final long reconnectDelayMillis;
+
+    private final Thread listener = new Thread(this::listen, "invalidation-listener");
+
+    private volatile boolean running;
+
+    public PostgresInvalidationBus(Sql2o sql2o,
+                                   @Value("${datasource.url}") String url,
+                                   @Value("${datasource.username}") String username,
+                                   @Value("${datasource.password}") String password,
+                                   @Value("${cache.invalidation.poll-timeout:1000}") int pollTimeoutMillis,
+                                   @Value("${cache.invalidation.reconnect-delay:5000}") long reconnectDelayMillis) {
+        this.sql2o = sql2o;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollTimeoutMillis = pollTimeoutMillis;
+        this.reconnectDelayMillis = reconnectDelayMillis;
+        listener.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        listener.interrupt();
+        listener.join(pollTimeoutMillis * 2L);
+    }
+
+    @Override
+    public void publish(InvalidationTopic topic, int id) {
+        try (var connection = sql2o.open()) {
+            connection.createQuery("SELECT pg_notify(:channel, :payload)")
+                    .addParameter("channel", CHANNEL)
+                    .addParameter("payload", topic.name() + SEPARATOR + id)
+                    .executeScalar();
+        }
+    }
+
+    @Override
+    public void subscribe(InvalidationTopic topic, IntConsumer onInvalidate, Runnable onReset) {
+        listeners.add(topic, onInvalidate, onReset);
+    }
+
+    private void listen() {
+        while (running) {
+            try (var connection = DriverManager.getConnection(url, username, password)) {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                listeners.resetAll();
+                var pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    var notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (var notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    LOGGER.error("Invalidation listener disconnected, reconnecting in {} ms", reconnectDelayMillis, e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    /* упавший подписчик не должен останавливать поток: иначе ни один кеш больше не получит сообщений */
+    private void dispatch(String payload) {
+        var separatorIndex = payload.indexOf(SEPARATOR);
+        InvalidationTopic topic;
+        int id;
+        try {
+            topic = InvalidationTopic.valueOf(payload.substring(0, separatorIndex));
+            id = Integer.parseInt(payload.substring(separatorIndex + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            LOGGER.error("Unknown invalidation message {}", payload);
+            return;
+        }
+        try {
+            listeners.invalidate(topic, id);
+        } catch (RuntimeException e) {
+            LOGGER.error("Invalidation listener failed on message {}", payload, e);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
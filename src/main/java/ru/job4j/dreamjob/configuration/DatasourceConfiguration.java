@@ -4,11 +4,14 @@ import org.apache.commons.dbcp2.BasicDataSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+import org.sql2o.Connection;
 import org.sql2o.Sql2o;
 import org.sql2o.converters.Converter;
 import org.sql2o.converters.ConverterException;
 import org.sql2o.quirks.NoQuirks;
 import org.sql2o.quirks.Quirks;
+import ru.job4j.dreamjob.metrics.StatementMetrics;
 
 import javax.sql.DataSource;
 import java.sql.Timestamp;
@@ -17,22 +20,64 @@ import java.time.LocalDateTime;
 @Configuration
 public class DatasourceConfiguration {
 
+    /*
+     * Репозитории берут соединение на каждый вызов, поэтому пул держит готовые соединения и кеширует
+     * подготовленные запросы на физическом соединении. Показатели пула публикуются в JMX под именем jmxName.
+     * Отзыв брошенных соединений по умолчанию выключен: выгрузка держит курсор, пока медленный клиент
+     * читает ответ, и не выполняет новых запросов дольше любого разумного тайм-аута.
+     */
     @Bean
     public DataSource connectionPool(@Value("${datasource.url}") String url,
                                      @Value("${datasource.username}") String username,
-                                     @Value("${datasource.password}") String password) {
+                                     @Value("${datasource.password}") String password,
+                                     ConnectionPoolProperties pool) {
         return new BasicDataSource() {
             {
                 setUrl(url);
                 setUsername(username);
                 setPassword(password);
+                setInitialSize(pool.getInitialSize());
+                setMinIdle(pool.getMinIdle());
+                setMaxIdle(pool.getMaxIdle());
+                setMaxTotal(pool.getMaxTotal());
+                setMaxWaitMillis(pool.getMaxWaitMillis());
+                setMaxConnLifetimeMillis(pool.getMaxConnLifetimeMillis());
+                setPoolPreparedStatements(pool.isPoolPreparedStatements());
+                setMaxOpenPreparedStatements(pool.getMaxOpenPreparedStatements());
+                setTestOnBorrow(pool.isTestOnBorrow());
+                setTestWhileIdle(pool.isTestWhileIdle());
+                setValidationQuery(pool.getValidationQuery());
+                setValidationQueryTimeout(pool.getValidationQueryTimeoutSeconds());
+                setTimeBetweenEvictionRunsMillis(pool.getTimeBetweenEvictionRunsMillis());
+                setMinEvictableIdleTimeMillis(pool.getMinEvictableIdleTimeMillis());
+                setRemoveAbandonedOnBorrow(pool.isRemoveAbandoned());
+                setRemoveAbandonedOnMaintenance(pool.isRemoveAbandoned());
+                setRemoveAbandonedTimeout(pool.getRemoveAbandonedTimeoutSeconds());
+                setLogAbandoned(pool.isLogAbandoned());
+                setAbandonedUsageTracking(pool.isLogAbandoned());
+                if (pool.getConnectionProperties() != null) {
+                    setConnectionProperties(pool.getConnectionProperties());
+                }
+                setJmxName(pool.getJmxName());
             }
         };
     }
 
+    /*
+     * Соединения берутся через TransactionAwareDataSourceProxy, поэтому внутри @Transactional все репозитории
+     * работают в одной транзакции Spring. Откат и фиксацию в этом случае выполняет Spring, а не sql2o.
+     * Замер запросов оборачивает прокси снаружи: транзакция Spring привязана к самому пулу.
+     */
     @Bean
-    public Sql2o databaseClient(DataSource dataSource) {
-        return new Sql2o(dataSource, createConverters());
+    public Sql2o databaseClient(DataSource dataSource, StatementMetrics statementMetrics) {
+        return new Sql2o(statementMetrics.wrap(new TransactionAwareDataSourceProxy(dataSource)), createConverters()) {
+            @Override
+            public Connection open() {
+                return super.open()
+                        .setRollbackOnClose(false)
+                        .setRollbackOnException(false);
+            }
+        };
     }
 
     private Quirks createConverters() {
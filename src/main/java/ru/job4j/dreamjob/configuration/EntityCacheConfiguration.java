@@ -0,0 +1,69 @@
+package ru.job4j.dreamjob.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.job4j.dreamjob.cache.EntityCache;
+import ru.job4j.dreamjob.cache.InvalidationBus;
+import ru.job4j.dreamjob.cache.InvalidationTopic;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.Vacancy;
+
+/*
+ * Кеши карточек вакансий и кандидатов; entity.cache.enabled=false отключает оба, запросы идут прямо в базу.
+ * Записи вытесняются по сообщениям шины, поэтому изменения с других узлов видны без ожидания ttl.
+ * Счётчики каждого кеша публикуются с тегом cache, по нему в дашборде видно, какой кеш промахивается.
+ */
+@Configuration
+public class EntityCacheConfiguration {
+
+    @Bean
+    public EntityCache<Vacancy> vacancyCache(@Value("${entity.cache.enabled:true}") boolean enabled,
+                                             @Value("${entity.cache.max-size:10000}") int maxSize,
+                                             @Value("${entity.cache.ttl:60000}") long ttlMillis,
+                                             InvalidationBus invalidationBus,
+                                             MeterRegistry registry) {
+        var cache = new EntityCache<Vacancy>(enabled, maxSize, ttlMillis);
+        invalidationBus.subscribe(InvalidationTopic.VACANCIES, cache::evict, cache::clear);
+        bindMetrics("vacancies", cache, registry);
+        return cache;
+    }
+
+    @Bean
+    public EntityCache<Candidate> candidateCache(@Value("${entity.cache.enabled:true}") boolean enabled,
+                                                 @Value("${entity.cache.max-size:10000}") int maxSize,
+                                                 @Value("${entity.cache.ttl:60000}") long ttlMillis,
+                                                 InvalidationBus invalidationBus,
+                                                 MeterRegistry registry) {
+        var cache = new EntityCache<Candidate>(enabled, maxSize, ttlMillis);
+        invalidationBus.subscribe(InvalidationTopic.CANDIDATES, cache::evict, cache::clear);
+        bindMetrics("candidates", cache, registry);
+        return cache;
+    }
+
+    private static void bindMetrics(String name, EntityCache<?> cache, MeterRegistry registry) {
+        FunctionCounter.builder("dreamjob.entity.cache.hits", cache, EntityCache::getHitCount)
+                .description("Entity lookups served from the cache")
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("dreamjob.entity.cache.misses", cache, EntityCache::getMissCount)
+                .description("Entity lookups that went to the database")
+                .tag("cache", name)
+                .register(registry);
+        FunctionCounter.builder("dreamjob.entity.cache.evictions", cache, EntityCache::getEvictionCount)
+                .description("Entries evicted to stay within the size limit")
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("dreamjob.entity.cache.hit.ratio", cache, EntityCache::getHitRatio)
+                .description("Share of lookups served from the cache")
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("dreamjob.entity.cache.size", cache, EntityCache::getEntryCount)
+                .description("Entries held in the cache")
+                .tag("cache", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.job4j.dreamjob.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/*
+ * Раскладка файлового хранилища file.*: каталог, имена по хешу содержимого (content-addressed)
+ * и число уровней подкаталогов. Остальные file.* настраивают кеш, миниатюры, запись и сборку мусора.
+ */
+@Component
+@ConfigurationProperties(prefix = "file")
+public class FileStorageProperties {
+
+    private String directory = "files";
+
+    private boolean contentAddressed = false;
+
+    private int directoryLevels = 2;
+
+    public FileStorageProperties() {
+    }
+
+    public FileStorageProperties(String directory, boolean contentAddressed, int directoryLevels) {
+        this.directory = directory;
+        this.contentAddressed = contentAddressed;
+        this.directoryLevels = directoryLevels;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public boolean isContentAddressed() {
+        return contentAddressed;
+    }
+
+    public void setContentAddressed(boolean contentAddressed) {
+        this.contentAddressed = contentAddressed;
+    }
+
+    public int getDirectoryLevels() {
+        return directoryLevels;
+    }
+
+    public void setDirectoryLevels(int directoryLevels) {
+        this.directoryLevels = directoryLevels;
+    }
+}
@@ -0,0 +1,40 @@
+package ru.job4j.dreamjob.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * server.threads.mode=virtual: Tomcat и асинхронные ответы (выгрузки) выполняются на виртуальных потоках,
+ * по потоку на запрос, вместо пула из server.tomcat.threads.max потоков. Число одновременных запросов
+ * ограничивает ConcurrencyLimitFilter по размеру пула соединений.
+ */
+@Configuration
+@ConditionalOnProperty(name = "server.threads.mode", havingValue = "virtual")
+public class ServerThreadsConfiguration implements WebMvcConfigurer {
+
+    private final ExecutorService requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new ConcurrentTaskExecutor(requestExecutor));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        requestExecutor.shutdown();
+    }
+}
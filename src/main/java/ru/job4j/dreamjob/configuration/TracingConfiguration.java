@@ -0,0 +1,22 @@
+package ru.job4j.dreamjob.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.job4j.dreamjob.tracing.Tracer;
+import ru.job4j.dreamjob.tracing.TracingInterceptor;
+
+@Configuration
+public class TracingConfiguration implements WebMvcConfigurer {
+
+    private final Tracer tracer;
+
+    public TracingConfiguration(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TracingInterceptor(tracer));
+    }
+}
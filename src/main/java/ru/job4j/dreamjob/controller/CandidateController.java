@@ -15,6 +15,8 @@ import ru.job4j.dreamjob.service.CityService;
 @ThreadSafe
 public class CandidateController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CandidateService candidateService;
 
     private final CityService cityService;
@@ -25,8 +27,14 @@ public class CandidateController {
     }
 
     @GetMapping
-    public String getAll(Model model) {
-        model.addAttribute("candidates", candidateService.findAll());
+    public String getAll(Model model,
+                         @RequestParam(defaultValue = "0") int after,
+                         @RequestParam(defaultValue = "20") int size) {
+        var limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        var page = candidateService.findPage(after, limit);
+        model.addAttribute("candidates", page.getItems());
+        model.addAttribute("page", page);
+        model.addAttribute("size", limit);
         return "candidates/list";
     }
 
@@ -39,7 +47,7 @@ public class CandidateController {
     @PostMapping("/create")
     public String create(@ModelAttribute Candidate candidate, Model model, @RequestParam MultipartFile file) {
         try {
-            candidateService.save(candidate, new FileDto(file.getOriginalFilename(), file.getBytes()));
+            candidateService.save(candidate, new FileDto(file.getOriginalFilename(), file, file.getSize()));
             return "redirect:/candidates";
         } catch (Exception exception) {
             model.addAttribute("message", exception.getMessage());
@@ -62,7 +70,7 @@ public class CandidateController {
     @PostMapping("/update")
     public String update(@ModelAttribute Candidate candidate, Model model, @RequestParam MultipartFile file) {
         try {
-            var isUpdated = candidateService.update(candidate, new FileDto(file.getOriginalFilename(), file.getBytes()));
+            var isUpdated = candidateService.update(candidate, new FileDto(file.getOriginalFilename(), file, file.getSize()));
             if (!isUpdated) {
                 model.addAttribute("message", "Кандидат с указанным идентификатором не найден");
                 return "errors/404";
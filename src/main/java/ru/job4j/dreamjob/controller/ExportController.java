@@ -0,0 +1,57 @@
+package ru.job4j.dreamjob.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.job4j.dreamjob.service.DataFormat;
+import ru.job4j.dreamjob.service.ExportService;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.BiConsumer;
+
+/* ответ пишется из потока асинхронной обработки MVC, поток запроса Tomcat на время выгрузки освобождается */
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/vacancies")
+    public ResponseEntity<StreamingResponseBody> exportVacancies(@RequestParam(defaultValue = "csv") String format) {
+        return export("vacancies", format, exportService::exportVacancies);
+    }
+
+    @GetMapping("/candidates")
+    public ResponseEntity<StreamingResponseBody> exportCandidates(@RequestParam(defaultValue = "csv") String format) {
+        return export("candidates", format, exportService::exportCandidates);
+    }
+
+    /* тип тела должен быть StreamingResponseBody и для ошибки: по нему MVC выбирает потоковую асинхронную отдачу */
+    private ResponseEntity<StreamingResponseBody> export(String name, String formatName, BiConsumer<OutputStream, DataFormat> exporter) {
+        var formatOptional = DataFormat.fromName(formatName);
+        if (formatOptional.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                    .body(output -> output.write("Поддерживаются форматы csv и ndjson".getBytes(StandardCharsets.UTF_8)));
+        }
+        var format = formatOptional.get();
+        StreamingResponseBody body = output -> exporter.accept(output, format);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(format.getMediaType()), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + format.name().toLowerCase(Locale.ROOT) + "\"")
+                .body(body);
+    }
+}
@@ -1,11 +1,15 @@
 package ru.job4j.dreamjob.controller;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.job4j.dreamjob.service.FileService;
+import ru.job4j.dreamjob.service.ThumbnailSize;
 
 @RestController
 @RequestMapping("/files")
@@ -18,11 +22,22 @@ public class FileController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getById(@PathVariable int id) {
-        var contentOptional = fileService.getFileById(id);
-        if (contentOptional.isEmpty()) {
+    public ResponseEntity<?> getById(@PathVariable int id, @RequestParam(required = false) String size) {
+        var thumbnailSize = ThumbnailSize.fromSuffix(size);
+        var resourceOptional = thumbnailSize.isPresent()
+                ? fileService.getFileResourceById(id, thumbnailSize.get())
+                : fileService.getFileResourceById(id);
+        if (resourceOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(contentOptional.get().getContent());
+        var fileResource = resourceOptional.get();
+        var contentType = MediaTypeFactory.getMediaType(fileResource.getName())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .contentLength(fileResource.getSize())
+                .eTag(fileResource.getETag())
+                .lastModified(fileResource.getLastModified())
+                .body(fileResource.getContent());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,49 @@
+package ru.job4j.dreamjob.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.job4j.dreamjob.dto.ImportReportDto;
+import ru.job4j.dreamjob.service.DataFormat;
+import ru.job4j.dreamjob.service.ImportService;
+
+import java.io.InputStream;
+import java.util.function.BiFunction;
+
+/* тело запроса читается потоком, файл целиком в памяти не держится */
+@RestController
+@RequestMapping("/import")
+public class ImportController {
+
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping("/vacancies")
+    public ResponseEntity<?> importVacancies(@RequestHeader(value = "Content-Type", required = false) MediaType contentType,
+                                             InputStream body) {
+        return importRows(contentType, body, importService::importVacancies);
+    }
+
+    @PostMapping("/candidates")
+    public ResponseEntity<?> importCandidates(@RequestHeader(value = "Content-Type", required = false) MediaType contentType,
+                                              InputStream body) {
+        return importRows(contentType, body, importService::importCandidates);
+    }
+
+    private ResponseEntity<?> importRows(MediaType contentType, InputStream body,
+                                         BiFunction<InputStream, DataFormat, ImportReportDto> importer) {
+        var formatOptional = DataFormat.fromMediaType(contentType);
+        if (formatOptional.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                    .body("Поддерживаются text/csv и application/x-ndjson");
+        }
+        return ResponseEntity.ok(importer.apply(body, formatOptional.get()));
+    }
+}
@@ -0,0 +1,40 @@
+package ru.job4j.dreamjob.controller;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.job4j.dreamjob.search.SearchType;
+import ru.job4j.dreamjob.service.SearchService;
+
+@Controller
+@RequestMapping("/search")
+@ThreadSafe
+public class SearchController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping
+    public String search(Model model,
+                         @RequestParam(defaultValue = "") String query,
+                         @RequestParam(defaultValue = "VACANCY") SearchType type,
+                         @RequestParam(defaultValue = "0") int page,
+                         @RequestParam(defaultValue = "20") int size) {
+        var pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        var result = searchService.search(type, query, Math.max(0, page), pageSize);
+        model.addAttribute("query", query);
+        model.addAttribute("type", type);
+        model.addAttribute("types", SearchType.values());
+        model.addAttribute("size", pageSize);
+        model.addAttribute("result", result);
+        return "search/list";
+    }
+}
@@ -1,20 +1,26 @@
 package ru.job4j.dreamjob.controller;
 
 import net.jcip.annotations.ThreadSafe;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.VacancyFilterDto;
 import ru.job4j.dreamjob.model.Vacancy;
 import ru.job4j.dreamjob.service.CityService;
 import ru.job4j.dreamjob.service.VacancyService;
 
+import java.time.LocalDateTime;
+
 @Controller
 @RequestMapping("/vacancies") /* Работать с кандидатами будем по URI /vacancies/** */
 @ThreadSafe
 public class VacancyController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final VacancyService vacancyService;
 
     private final CityService cityService;
@@ -24,9 +30,19 @@ public class VacancyController {
         this.cityService = cityService;
     }
 
+    /* список идёт от новых вакансий к старым, следующая страница начинается после пары (afterDate, after) */
     @GetMapping
-    public String getAll(Model model) {
-        model.addAttribute("vacancies", vacancyService.findAll());
+    public String getAll(Model model,
+                         @ModelAttribute("filter") VacancyFilterDto filter,
+                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDate,
+                         @RequestParam(defaultValue = "0") int after,
+                         @RequestParam(defaultValue = "20") int size) {
+        var limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        var page = vacancyService.findPage(filter, afterDate, after, limit);
+        model.addAttribute("vacancies", page.getItems());
+        model.addAttribute("page", page);
+        model.addAttribute("size", limit);
+        model.addAttribute("cities", cityService.findAll());
         return "vacancies/list";
     }
 
@@ -39,7 +55,7 @@ public class VacancyController {
     @PostMapping("/create")
     public String create(@ModelAttribute Vacancy vacancy, @RequestParam MultipartFile file, Model model) {
         try {
-            vacancyService.save(vacancy, new FileDto(file.getOriginalFilename(), file.getBytes()));
+            vacancyService.save(vacancy, new FileDto(file.getOriginalFilename(), file, file.getSize()));
             return "redirect:/vacancies";
         } catch (Exception exception) {
             model.addAttribute("message", exception.getMessage());
@@ -62,7 +78,7 @@ public class VacancyController {
     @PostMapping("/update")
     public String update(@ModelAttribute Vacancy vacancy, @RequestParam MultipartFile file, Model model) {
         try {
-            var isUpdated = vacancyService.update(vacancy, new FileDto(file.getOriginalFilename(), file.getBytes()));
+            var isUpdated = vacancyService.update(vacancy, new FileDto(file.getOriginalFilename(), file, file.getSize()));
             if (!isUpdated) {
                 model.addAttribute("message", "Вакансия с указанным идентификатором не найдена");
                 return "errors/404";
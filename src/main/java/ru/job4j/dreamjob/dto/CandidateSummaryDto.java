@@ -0,0 +1,83 @@
+package ru.job4j.dreamjob.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+
+/* строка списка кандидатов: только выводимые в списке колонки, без описания и города */
+public class CandidateSummaryDto {
+
+    public static final Map<String, String> COLUMN_MAPPING = Map.of(
+            "id", "id",
+            "name", "name",
+            "creation_date", "creationDate",
+            "file_id", "fileId"
+    );
+
+    private int id;
+
+    private String name;
+
+    private LocalDateTime creationDate;
+
+    private int fileId;
+
+    public CandidateSummaryDto() {
+    }
+
+    public CandidateSummaryDto(int id, String name, LocalDateTime creationDate, int fileId) {
+        this.id = id;
+        this.name = name;
+        this.creationDate = creationDate;
+        this.fileId = fileId;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public int getFileId() {
+        return fileId;
+    }
+
+    public void setFileId(int fileId) {
+        this.fileId = fileId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CandidateSummaryDto that = (CandidateSummaryDto) o;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.job4j.dreamjob.dto;
+
+public class FileCleanupReportDto {
+
+    private long rowsDeleted;
+
+    private long blobsScanned;
+
+    private long blobsDeleted;
+
+    private long bytesFreed;
+
+    private long durationMillis;
+
+    public FileCleanupReportDto(long rowsDeleted, long blobsScanned, long blobsDeleted, long bytesFreed, long durationMillis) {
+        this.rowsDeleted = rowsDeleted;
+        this.blobsScanned = blobsScanned;
+        this.blobsDeleted = blobsDeleted;
+        this.bytesFreed = bytesFreed;
+        this.durationMillis = durationMillis;
+    }
+
+    public long getRowsDeleted() {
+        return rowsDeleted;
+    }
+
+    public void setRowsDeleted(long rowsDeleted) {
+        this.rowsDeleted = rowsDeleted;
+    }
+
+    public long getBlobsScanned() {
+        return blobsScanned;
+    }
+
+    public void setBlobsScanned(long blobsScanned) {
+        this.blobsScanned = blobsScanned;
+    }
+
+    public long getBlobsDeleted() {
+        return blobsDeleted;
+    }
+
+    public void setBlobsDeleted(long blobsDeleted) {
+        this.blobsDeleted = blobsDeleted;
+    }
+
+    public long getBytesFreed() {
+        return bytesFreed;
+    }
+
+    public void setBytesFreed(long bytesFreed) {
+        this.bytesFreed = bytesFreed;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "rowsDeleted=" + rowsDeleted
+                + ", blobsScanned=" + blobsScanned
+                + ", blobsDeleted=" + blobsDeleted
+                + ", bytesFreed=" + bytesFreed
+                + ", durationMillis=" + durationMillis;
+    }
+}
@@ -1,14 +1,31 @@
 package ru.job4j.dreamjob.dto;
 
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
 public class FileDto {
 
     private String name;
 
     private byte[] content; /*тут кроется различие. доменная модель хранит путь, а не содержимое*/
 
+    private InputStreamSource source; /*при загрузке содержимое не копируется в память, а читается потоком*/
+
+    private long size;
+
     public FileDto(String name, byte[] content) {
         this.name = name;
         this.content = content;
+        this.size = content.length;
+    }
+
+    public FileDto(String name, InputStreamSource source, long size) {
+        this.name = name;
+        this.source = source;
+        this.size = size;
     }
 
     public String getName() {
@@ -19,11 +36,33 @@ public class FileDto {
         this.name = name;
     }
 
+    /* содержимое загрузки читается из потока целиком только по явному запросу */
     public byte[] getContent() {
-        return content;
+        if (content != null) {
+            return content;
+        }
+        try (var input = source.getInputStream()) {
+            return input.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     public void setContent(byte[] content) {
         this.content = content;
+        this.source = null;
+        this.size = content.length;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public InputStream getInputStream() throws IOException {
+        return source != null ? source.getInputStream() : new ByteArrayInputStream(content);
     }
 }
@@ -0,0 +1,64 @@
+package ru.job4j.dreamjob.dto;
+
+import org.springframework.core.io.Resource;
+
+public class FileResourceDto {
+
+    private String name;
+
+    private Resource content; /*в отличие от FileDto содержимое не загружается в память, а читается потоком при отправке*/
+
+    private long size;
+
+    private String eTag;
+
+    private long lastModified;
+
+    public FileResourceDto(String name, Resource content, long size, String eTag, long lastModified) {
+        this.name = name;
+        this.content = content;
+        this.size = size;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Resource getContent() {
+        return content;
+    }
+
+    public void setContent(Resource content) {
+        this.content = content;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public void setETag(String eTag) {
+        this.eTag = eTag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.job4j.dreamjob.dto;
+
+import java.util.List;
+
+public class ImportReportDto {
+
+    private long created;
+
+    private long updated;
+
+    private long failed;
+
+    private List<String> errors;
+
+    private long durationMillis;
+
+    public ImportReportDto(long created, long updated, long failed, List<String> errors, long durationMillis) {
+        this.created = created;
+        this.updated = updated;
+        this.failed = failed;
+        this.errors = errors;
+        this.durationMillis = durationMillis;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "created=" + created
+                + ", updated=" + updated
+                + ", failed=" + failed
+                + ", durationMillis=" + durationMillis;
+    }
+}
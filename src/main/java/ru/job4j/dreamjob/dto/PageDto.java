@@ -0,0 +1,73 @@
+package ru.job4j.dreamjob.dto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/*
+ * страница выборки по ключу: следующая начинается после nextAfterId, если hasNext;
+ * nextAfterDate задан, когда записи упорядочены по дате создания и ключу
+ */
+public class PageDto<T> {
+
+    private Collection<T> items;
+
+    private int afterId;
+
+    private int nextAfterId;
+
+    private LocalDateTime nextAfterDate;
+
+    private boolean hasNext;
+
+    public PageDto(Collection<T> items, int afterId, int nextAfterId, boolean hasNext) {
+        this(items, afterId, nextAfterId, null, hasNext);
+    }
+
+    public PageDto(Collection<T> items, int afterId, int nextAfterId, LocalDateTime nextAfterDate, boolean hasNext) {
+        this.items = items;
+        this.afterId = afterId;
+        this.nextAfterId = nextAfterId;
+        this.nextAfterDate = nextAfterDate;
+        this.hasNext = hasNext;
+    }
+
+    public Collection<T> getItems() {
+        return items;
+    }
+
+    public void setItems(Collection<T> items) {
+        this.items = items;
+    }
+
+    public int getAfterId() {
+        return afterId;
+    }
+
+    public void setAfterId(int afterId) {
+        this.afterId = afterId;
+    }
+
+    public int getNextAfterId() {
+        return nextAfterId;
+    }
+
+    public void setNextAfterId(int nextAfterId) {
+        this.nextAfterId = nextAfterId;
+    }
+
+    public LocalDateTime getNextAfterDate() {
+        return nextAfterDate;
+    }
+
+    public void setNextAfterDate(LocalDateTime nextAfterDate) {
+        this.nextAfterDate = nextAfterDate;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
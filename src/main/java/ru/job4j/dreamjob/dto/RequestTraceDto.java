@@ -0,0 +1,88 @@
+package ru.job4j.dreamjob.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class RequestTraceDto {
+
+    private String id;
+
+    private String method;
+
+    private String uri;
+
+    private int status;
+
+    private LocalDateTime startedAt;
+
+    private double durationMillis;
+
+    private List<SpanDto> spans;
+
+    public RequestTraceDto(String id, String method, String uri, int status, LocalDateTime startedAt,
+                           double durationMillis, List<SpanDto> spans) {
+        this.id = id;
+        this.method = method;
+        this.uri = uri;
+        this.status = status;
+        this.startedAt = startedAt;
+        this.durationMillis = durationMillis;
+        this.spans = spans;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public void setUri(String uri) {
+        this.uri = uri;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(double durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public List<SpanDto> getSpans() {
+        return spans;
+    }
+
+    public void setSpans(List<SpanDto> spans) {
+        this.spans = spans;
+    }
+}
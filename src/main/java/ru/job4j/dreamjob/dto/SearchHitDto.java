@@ -0,0 +1,62 @@
+package ru.job4j.dreamjob.dto;
+
+import java.util.Objects;
+
+public class SearchHitDto {
+
+    private int id;
+
+    private String title;
+
+    private double rank;
+
+    public SearchHitDto() {
+    }
+
+    public SearchHitDto(int id, String title, double rank) {
+        this.id = id;
+        this.title = title;
+        this.rank = rank;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public double getRank() {
+        return rank;
+    }
+
+    public void setRank(double rank) {
+        this.rank = rank;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SearchHitDto that = (SearchHitDto) o;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
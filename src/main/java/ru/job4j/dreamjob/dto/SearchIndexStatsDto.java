@@ -0,0 +1,64 @@
+package ru.job4j.dreamjob.dto;
+
+public class SearchIndexStatsDto {
+
+    private int documents;
+
+    private int terms;
+
+    private long postings;
+
+    private long estimatedBytes;
+
+    public SearchIndexStatsDto(int documents, int terms, long postings, long estimatedBytes) {
+        this.documents = documents;
+        this.terms = terms;
+        this.postings = postings;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public int getDocuments() {
+        return documents;
+    }
+
+    public void setDocuments(int documents) {
+        this.documents = documents;
+    }
+
+    public int getTerms() {
+        return terms;
+    }
+
+    public void setTerms(int terms) {
+        this.terms = terms;
+    }
+
+    public long getPostings() {
+        return postings;
+    }
+
+    public void setPostings(long postings) {
+        this.postings = postings;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public void setEstimatedBytes(long estimatedBytes) {
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public long getBytesPerDocument() {
+        return documents == 0 ? 0 : estimatedBytes / documents;
+    }
+
+    @Override
+    public String toString() {
+        return "documents=" + documents
+                + ", terms=" + terms
+                + ", postings=" + postings
+                + ", estimatedBytes=" + estimatedBytes
+                + ", bytesPerDocument=" + getBytesPerDocument();
+    }
+}
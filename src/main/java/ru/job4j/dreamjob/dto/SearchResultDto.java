@@ -0,0 +1,43 @@
+package ru.job4j.dreamjob.dto;
+
+import java.util.List;
+
+/* результаты упорядочены по релевантности, поэтому листаются по номеру страницы, а не по ключу */
+public class SearchResultDto {
+
+    private List<SearchHitDto> hits;
+
+    private int page;
+
+    private boolean hasNext;
+
+    public SearchResultDto(List<SearchHitDto> hits, int page, boolean hasNext) {
+        this.hits = hits;
+        this.page = page;
+        this.hasNext = hasNext;
+    }
+
+    public List<SearchHitDto> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<SearchHitDto> hits) {
+        this.hits = hits;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
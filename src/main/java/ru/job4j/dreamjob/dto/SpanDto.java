@@ -0,0 +1,73 @@
+package ru.job4j.dreamjob.dto;
+
+public class SpanDto {
+
+    private String name;
+
+    private String layer;
+
+    private int depth;
+
+    private double startMillis;
+
+    private double durationMillis;
+
+    private double selfMillis;
+
+    public SpanDto(String name, String layer, int depth, double startMillis, double durationMillis, double selfMillis) {
+        this.name = name;
+        this.layer = layer;
+        this.depth = depth;
+        this.startMillis = startMillis;
+        this.durationMillis = durationMillis;
+        this.selfMillis = selfMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLayer() {
+        return layer;
+    }
+
+    public void setLayer(String layer) {
+        this.layer = layer;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public double getStartMillis() {
+        return startMillis;
+    }
+
+    public void setStartMillis(double startMillis) {
+        this.startMillis = startMillis;
+    }
+
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(double durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public double getSelfMillis() {
+        return selfMillis;
+    }
+
+    public void setSelfMillis(double selfMillis) {
+        this.selfMillis = selfMillis;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.job4j.dreamjob.dto;
+
+public class StatementStatsDto {
+
+    private String sql;
+
+    private long executions;
+
+    private double totalMillis;
+
+    private double maxMillis;
+
+    private long rows;
+
+    public StatementStatsDto(String sql, long executions, double totalMillis, double maxMillis, long rows) {
+        this.sql = sql;
+        this.executions = executions;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+        this.rows = rows;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    public long getExecutions() {
+        return executions;
+    }
+
+    public void setExecutions(long executions) {
+        this.executions = executions;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public void setTotalMillis(double totalMillis) {
+        this.totalMillis = totalMillis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public void setMaxMillis(double maxMillis) {
+        this.maxMillis = maxMillis;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public double getMeanMillis() {
+        return executions == 0 ? 0 : totalMillis / executions;
+    }
+}
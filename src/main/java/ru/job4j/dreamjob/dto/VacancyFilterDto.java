@@ -0,0 +1,65 @@
+package ru.job4j.dreamjob.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/* незаданное (null) условие фильтра не ограничивает выборку; период включает обе границы */
+public class VacancyFilterDto {
+
+    private Integer cityId;
+
+    private Boolean visible;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateTo;
+
+    public VacancyFilterDto() {
+    }
+
+    public VacancyFilterDto(Integer cityId, Boolean visible, LocalDate dateFrom, LocalDate dateTo) {
+        this.cityId = cityId;
+        this.visible = visible;
+        this.dateFrom = dateFrom;
+        this.dateTo = dateTo;
+    }
+
+    public boolean isEmpty() {
+        return cityId == null && visible == null && dateFrom == null && dateTo == null;
+    }
+
+    public Integer getCityId() {
+        return cityId;
+    }
+
+    public void setCityId(Integer cityId) {
+        this.cityId = cityId;
+    }
+
+    public Boolean getVisible() {
+        return visible;
+    }
+
+    public void setVisible(Boolean visible) {
+        this.visible = visible;
+    }
+
+    public LocalDate getDateFrom() {
+        return dateFrom;
+    }
+
+    public void setDateFrom(LocalDate dateFrom) {
+        this.dateFrom = dateFrom;
+    }
+
+    public LocalDate getDateTo() {
+        return dateTo;
+    }
+
+    public void setDateTo(LocalDate dateTo) {
+        this.dateTo = dateTo;
+    }
+}
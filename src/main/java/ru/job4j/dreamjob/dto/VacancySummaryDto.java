@@ -0,0 +1,95 @@
+package ru.job4j.dreamjob.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+
+/* строка списка вакансий: только выводимые в списке колонки, без описания и города */
+public class VacancySummaryDto {
+
+    public static final Map<String, String> COLUMN_MAPPING = Map.of(
+            "id", "id",
+            "title", "title",
+            "creation_date", "creationDate",
+            "visible", "visible",
+            "file_id", "fileId"
+    );
+
+    private int id;
+
+    private String title;
+
+    private LocalDateTime creationDate;
+
+    private boolean visible;
+
+    private int fileId;
+
+    public VacancySummaryDto() {
+    }
+
+    public VacancySummaryDto(int id, String title, LocalDateTime creationDate, boolean visible, int fileId) {
+        this.id = id;
+        this.title = title;
+        this.creationDate = creationDate;
+        this.visible = visible;
+        this.fileId = fileId;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public boolean getVisible() {
+        return visible;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    public int getFileId() {
+        return fileId;
+    }
+
+    public void setFileId(int fileId) {
+        this.fileId = fileId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        VacancySummaryDto that = (VacancySummaryDto) o;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
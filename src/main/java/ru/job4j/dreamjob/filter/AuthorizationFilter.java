@@ -2,6 +2,7 @@ package ru.job4j.dreamjob.filter;
 
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.tracing.Tracer;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -14,20 +15,25 @@ import java.io.IOException;
 @Order(1)
 public class AuthorizationFilter extends HttpFilter {
 
+    private final Tracer tracer;
+
+    public AuthorizationFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
     @Override
     protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
-        var uri = request.getRequestURI();
-        if (isAlwaysPermitted(uri)) {
-            chain.doFilter(request, response);
-            return;
+        boolean isPermitted;
+        try (var span = tracer.start("AuthorizationFilter", Tracer.FILTER)) {
+            isPermitted = isAlwaysPermitted(request.getRequestURI()) || request.getSession().getAttribute("user") != null;
+            if (!isPermitted) {
+                var loginPageUrl = request.getContextPath() + "/users/login";
+                response.sendRedirect(loginPageUrl);
+            }
         }
-        var userLoggedIn = request.getSession().getAttribute("user") != null;
-        if (!userLoggedIn) {
-            var loginPageUrl = request.getContextPath() + "/users/login";
-            response.sendRedirect(loginPageUrl);
-            return;
+        if (isPermitted) {
+            chain.doFilter(request, response);
         }
-        chain.doFilter(request, response);
     }
 
     private boolean isAlwaysPermitted(String uri) {
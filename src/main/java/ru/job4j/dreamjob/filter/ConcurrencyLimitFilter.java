@@ -0,0 +1,118 @@
+package ru.job4j.dreamjob.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.tracing.Tracer;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * С виртуальными потоками Tomcat не ограничивает число запросов, и все они ждали бы соединение в пуле.
+ * Фильтр пропускает не больше maxRequests запросов одновременно (по умолчанию размер пула), остальные ждут
+ * в порядке очереди до maxWaitMillis и получают 503.
+ * Асинхронный запрос (выгрузка) держит разрешение до завершения ответа, а не до возврата из цепочки фильтров.
+ */
+@Component
+@Order(3)
+@ConditionalOnProperty(name = "server.threads.mode", havingValue = "virtual")
+public class ConcurrencyLimitFilter extends HttpFilter {
+
+    private final Semaphore permits;
+
+    private final long maxWaitMillis;
+
+    private final Tracer tracer;
+
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(@Value("${server.concurrency.max-requests:${datasource.pool.max-total:16}}") int maxRequests,
+                                  @Value("${server.concurrency.max-wait-millis:${datasource.pool.max-wait-millis:3000}}") long maxWaitMillis,
+                                  Tracer tracer,
+                                  MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxRequests, true);
+        this.maxWaitMillis = maxWaitMillis;
+        this.tracer = tracer;
+        this.rejected = Counter.builder("dreamjob.requests.rejected")
+                .description("Requests rejected by the concurrency limit")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        boolean isAcquired;
+        try (var span = tracer.start("ConcurrencyLimitFilter", Tracer.FILTER)) {
+            isAcquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            isAcquired = false;
+        }
+        if (!isAcquired) {
+            rejected.increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new PermitReleasingListener(permits));
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    /* после ошибки и тайм-аута контейнер ещё вызывает onComplete, поэтому разрешение возвращается один раз */
+    private static final class PermitReleasingListener implements AsyncListener {
+
+        private final Semaphore permits;
+
+        private final AtomicBoolean isReleased = new AtomicBoolean();
+
+        private PermitReleasingListener(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        /* повторный startAsync сбрасывает слушателей, поэтому слушатель регистрируется заново */
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (isReleased.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.job4j.dreamjob.filter;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import ru.job4j.dreamjob.model.User;
+import ru.job4j.dreamjob.tracing.Tracer;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -16,10 +17,17 @@ import java.io.IOException;
 @Order(2)
 public class SessionFilter extends HttpFilter {
 
+    private final Tracer tracer;
+
+    public SessionFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
     @Override
     protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
-        var session = request.getSession();
-        addUserToSession(session, request);
+        try (var span = tracer.start("SessionFilter", Tracer.FILTER)) {
+            addUserToSession(request.getSession(), request);
+        }
         chain.doFilter(request, response);
     }
 
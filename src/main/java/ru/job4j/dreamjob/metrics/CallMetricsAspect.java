@@ -0,0 +1,73 @@
+package ru.job4j.dreamjob.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/*
+ * Время каждого вызова сервисов и запросов Sql2o-репозиториев с тегами class, method и exception.
+ * Число ошибок - это count таймера с exception, отличным от none.
+ * Аспект оборачивает @Transactional снаружи, поэтому в замер сервиса входит и фиксация транзакции.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CallMetricsAspect {
+
+    static final String SERVICE_METRIC = "dreamjob.service.calls";
+
+    static final String REPOSITORY_METRIC = "dreamjob.repository.queries";
+
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public CallMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Pointcut("execution(* ru.job4j.dreamjob.service.VacancyService.*(..))"
+            + " || execution(* ru.job4j.dreamjob.service.CandidateService.*(..))"
+            + " || execution(* ru.job4j.dreamjob.service.FileService.*(..))"
+            + " || execution(* ru.job4j.dreamjob.service.UserService.*(..))"
+            + " || execution(* ru.job4j.dreamjob.service.CityService.*(..))")
+    public void services() {
+    }
+
+    @Pointcut("execution(public * ru.job4j.dreamjob.repository.Sql2o*Repository.*(..))")
+    public void repositories() {
+    }
+
+    @Around("services()")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(SERVICE_METRIC, joinPoint);
+    }
+
+    @Around("repositories()")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_METRIC, joinPoint);
+    }
+
+    private Object time(String metric, ProceedingJoinPoint joinPoint) throws Throwable {
+        var sample = Timer.start(meterRegistry);
+        var exception = NO_EXCEPTION;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(metric)
+                    .tag("class", joinPoint.getTarget().getClass().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
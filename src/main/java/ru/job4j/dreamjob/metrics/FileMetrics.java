@@ -0,0 +1,33 @@
+package ru.job4j.dreamjob.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/* объём записи и чтения файлового хранилища; потоковая отдача файла учитывается целиком при открытии */
+@Component
+public class FileMetrics {
+
+    private final Counter bytesWritten;
+
+    private final Counter bytesRead;
+
+    public FileMetrics(MeterRegistry meterRegistry) {
+        bytesWritten = Counter.builder("dreamjob.file.written")
+                .description("Bytes written to the file storage")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        bytesRead = Counter.builder("dreamjob.file.read")
+                .description("Bytes read from the file storage, streamed files are counted when opened")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public void recordWritten(long bytes) {
+        bytesWritten.increment(bytes);
+    }
+
+    public void recordRead(long bytes) {
+        bytesRead.increment(bytes);
+    }
+}
@@ -0,0 +1,28 @@
+package ru.job4j.dreamjob.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.dto.StatementStatsDto;
+
+import java.util.List;
+
+/* /actuator/slowqueries?limit=N - шаблоны SQL с наибольшим временем одного выполнения */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final StatementMetrics statementMetrics;
+
+    public SlowQueriesEndpoint(StatementMetrics statementMetrics) {
+        this.statementMetrics = statementMetrics;
+    }
+
+    @ReadOperation
+    public List<StatementStatsDto> slowQueries(@Nullable Integer limit) {
+        return statementMetrics.findSlowest(limit == null ? DEFAULT_LIMIT : limit);
+    }
+}
@@ -0,0 +1,156 @@
+package ru.job4j.dreamjob.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.dto.StatementStatsDto;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Статистика по шаблонам SQL: запрос в том виде, в каком его получает JDBC, с ? вместо параметров и схлопнутыми пробелами.
+ * Измеряется выполнение execute*, чтение строк результата в замер не входит, но строки считаются.
+ * Число шаблонов ограничено: запросы сверх maxStatements попадают в общий шаблон other, чтобы не раздувать метки метрик.
+ * Гистограмма включается только для времени выполнения; строки публикуются счётчиком, без корзин на каждый шаблон.
+ * Запросы дольше порога пишутся в лог; значения параметров не пишутся, только их типы.
+ */
+@Component
+@ThreadSafe
+public class StatementMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementMetrics.class);
+
+    private static final String OTHER_TEMPLATE = "other";
+
+    private final MeterRegistry meterRegistry;
+
+    private final long slowThresholdNanos;
+
+    private final int maxStatements;
+
+    private final Map<String, StatementStats> bySql = new ConcurrentHashMap<>();
+
+    private final Map<String, StatementStats> byTemplate = new ConcurrentHashMap<>();
+
+    public StatementMetrics(MeterRegistry meterRegistry,
+                            @Value("${datasource.slow-query.threshold:500ms}") Duration slowThreshold,
+                            @Value("${datasource.statement-metrics.max-statements:100}") int maxStatements) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxStatements = maxStatements;
+    }
+
+    public DataSource wrap(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return wrap(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return wrap(super.getConnection(username, password));
+            }
+        };
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                new TimedConnectionHandler(connection, this));
+    }
+
+    public List<StatementStatsDto> findSlowest(int limit) {
+        return byTemplate.values().stream()
+                .map(StatementStats::toDto)
+                .sorted(Comparator.comparingDouble(StatementStatsDto::getMaxMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    StatementStats statsFor(String sql) {
+        var stats = bySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        var template = sql.strip().replaceAll("\\s+", " ");
+        if (byTemplate.size() >= maxStatements && !byTemplate.containsKey(template)) {
+            template = OTHER_TEMPLATE;
+        }
+        stats = byTemplate.computeIfAbsent(template, StatementStats::new);
+        if (bySql.size() < maxStatements) {
+            bySql.put(sql, stats);
+        }
+        return stats;
+    }
+
+    void recordExecution(StatementStats stats, long nanos, Supplier<String> parameters) {
+        stats.recordExecution(nanos);
+        if (nanos > slowThresholdNanos) {
+            LOGGER.warn("Slow SQL statement took {} ms: {} parameters {}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), stats.template, parameters.get());
+        }
+    }
+
+    final class StatementStats {
+
+        private final String template;
+
+        private final Timer timer;
+
+        private final LongAdder executions = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private final LongAdder rows = new LongAdder();
+
+        private StatementStats(String template) {
+            this.template = template;
+            this.timer = Timer.builder("dreamjob.sql.statements")
+                    .tag("sql", template)
+                    .register(meterRegistry);
+            FunctionCounter.builder("dreamjob.sql.rows", rows, LongAdder::sum)
+                    .tag("sql", template)
+                    .register(meterRegistry);
+        }
+
+        private void recordExecution(long nanos) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            executions.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        void recordRows(long count) {
+            rows.add(count);
+        }
+
+        private StatementStatsDto toDto() {
+            return new StatementStatsDto(template, executions.sum(), toMillis(totalNanos.sum()), toMillis(maxNanos.get()),
+                    rows.sum());
+        }
+
+        private double toMillis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
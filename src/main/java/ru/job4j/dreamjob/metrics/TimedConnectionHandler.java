@@ -0,0 +1,45 @@
+package ru.job4j.dreamjob.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+/* оборачивает подготовленные запросы соединения; остальные вызовы передаются соединению как есть */
+final class TimedConnectionHandler implements InvocationHandler {
+
+    private final Connection target;
+
+    private final StatementMetrics metrics;
+
+    TimedConnectionHandler(Connection target, StatementMetrics metrics) {
+        this.target = target;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if ("equals".equals(method.getName())) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(method.getName())) {
+            return System.identityHashCode(proxy);
+        }
+        var result = invokeTarget(target, method, args);
+        if ("prepareStatement".equals(method.getName()) && result instanceof PreparedStatement statement) {
+            return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[] {PreparedStatement.class},
+                    new TimedStatementHandler(statement, metrics.statsFor((String) args[0]), metrics));
+        }
+        return result;
+    }
+
+    static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ru.job4j.dreamjob.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Засекает execute* и запоминает типы установленных параметров для журнала медленных запросов.
+ * Строки запроса считаются по ResultSet.next и записываются при закрытии результата или самого запроса.
+ */
+final class TimedStatementHandler implements InvocationHandler {
+
+    private final PreparedStatement target;
+
+    private final StatementMetrics.StatementStats stats;
+
+    private final StatementMetrics metrics;
+
+    private final Map<Integer, String> parameterTypes = new TreeMap<>();
+
+    private RowCounter rowCounter;
+
+    TimedStatementHandler(PreparedStatement target, StatementMetrics.StatementStats stats, StatementMetrics metrics) {
+        this.target = target;
+        this.stats = stats;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        var name = method.getName();
+        if ("equals".equals(name)) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        }
+        if (name.startsWith("execute")) {
+            return execute(method, args);
+        }
+        if ("close".equals(name)) {
+            flushRows();
+        } else if ("clearParameters".equals(name)) {
+            parameterTypes.clear();
+        } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+            parameterTypes.put(index, "setNull".equals(name) || args[1] == null ? "null" : args[1].getClass().getSimpleName());
+        }
+        return TimedConnectionHandler.invokeTarget(target, method, args);
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+        var startedAt = System.nanoTime();
+        Object result;
+        try {
+            result = TimedConnectionHandler.invokeTarget(target, method, args);
+        } finally {
+            metrics.recordExecution(stats, System.nanoTime() - startedAt, parameterTypes::toString);
+        }
+        if (result instanceof ResultSet resultSet) {
+            flushRows();
+            rowCounter = new RowCounter(resultSet);
+            return Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[] {ResultSet.class}, rowCounter);
+        }
+        if (result instanceof Integer count) {
+            stats.recordRows(Math.max(count, 0));
+        } else if (result instanceof Long count) {
+            stats.recordRows(Math.max(count, 0));
+        } else if (result instanceof int[] counts) {
+            var total = 0L;
+            for (var count : counts) {
+                total += Math.max(count, 0);
+            }
+            stats.recordRows(total);
+        }
+        return result;
+    }
+
+    private void flushRows() {
+        if (rowCounter != null) {
+            rowCounter.flush();
+            rowCounter = null;
+        }
+    }
+
+    private final class RowCounter implements InvocationHandler {
+
+        private final ResultSet target;
+
+        private long rows;
+
+        private boolean flushed;
+
+        private RowCounter(ResultSet target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            var name = method.getName();
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if ("close".equals(name)) {
+                flush();
+            }
+            var result = TimedConnectionHandler.invokeTarget(target, method, args);
+            if ("next".equals(name) && Boolean.TRUE.equals(result)) {
+                rows++;
+            }
+            return result;
+        }
+
+        private void flush() {
+            if (!flushed) {
+                flushed = true;
+                stats.recordRows(rows);
+            }
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package ru.job4j.dreamjob.model;
 
-public class City {
+public final class City {
 
     private final int id;
 
@@ -10,6 +10,10 @@ public class File {
 
     private String path;
 
+    private long size;
+
+    private String checksum;
+
     public File(String name, String path) {
         this.name = name;
         this.path = path;
@@ -39,6 +43,22 @@ public class File {
         this.path = path;
     }
 
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
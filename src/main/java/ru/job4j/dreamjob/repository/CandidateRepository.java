@@ -1,19 +1,29 @@
 package ru.job4j.dreamjob.repository;
 
+import ru.job4j.dreamjob.dto.CandidateSummaryDto;
 import ru.job4j.dreamjob.model.Candidate;
 
 import java.util.Collection;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CandidateRepository {
 
     Candidate save(Candidate candidate);
 
+    Collection<Candidate> saveAll(Collection<Candidate> candidates);
+
     boolean deleteById(int id);
 
     boolean update(Candidate candidate);
 
+    Collection<Candidate> updateAll(Collection<Candidate> candidates);
+
     Optional<Candidate> findById(int id);
 
     Collection<Candidate> findAll();
+
+    void scanAll(Consumer<Candidate> action);
+
+    Collection<CandidateSummaryDto> findPage(int afterId, int limit);
 }
@@ -2,13 +2,32 @@ package ru.job4j.dreamjob.repository;
 
 import ru.job4j.dreamjob.model.File;
 
+import java.util.Collection;
 import java.util.Optional;
 
 public interface FileRepository {
 
     File save(File file);
 
+    boolean saveIfAbsent(File file);
+
     Optional<File> findById(int id);
 
+    Optional<File> findByPath(String path);
+
+    Collection<File> findPage(int afterId, int limit);
+
+    void updatePaths(Collection<File> files);
+
     void deleteById(int id);
+
+    boolean addReference(String path);
+
+    boolean removeReference(int id);
+
+    Collection<File> findUnreferenced(int afterId, int limit);
+
+    boolean deleteUnreferenced(int id);
+
+    Collection<String> findExistingPaths(Collection<String> paths);
 }
@@ -2,11 +2,13 @@ package ru.job4j.dreamjob.repository;
 
 import net.jcip.annotations.ThreadSafe;
 import org.springframework.stereotype.Repository;
+import ru.job4j.dreamjob.dto.CandidateSummaryDto;
 import ru.job4j.dreamjob.model.Candidate;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Repository
 @ThreadSafe
@@ -30,6 +32,12 @@ public class MemoryCandidateRepository implements CandidateRepository {
         return candidate;
     }
 
+    @Override
+    public Collection<Candidate> saveAll(Collection<Candidate> newCandidates) {
+        newCandidates.forEach(this::save);
+        return newCandidates;
+    }
+
     @Override
     public boolean deleteById(int id) {
         return candidates.remove(id) != null;
@@ -42,6 +50,11 @@ public class MemoryCandidateRepository implements CandidateRepository {
                         candidate.getDescription(), candidate.getCreationDate(), candidate.getCityId(), candidate.getFileId())) != null;
     }
 
+    @Override
+    public Collection<Candidate> updateAll(Collection<Candidate> changedCandidates) {
+        return changedCandidates.stream().filter(this::update).toList();
+    }
+
     @Override
     public Optional<Candidate> findById(int id) {
         return Optional.ofNullable(candidates.get(id));
@@ -51,4 +64,20 @@ public class MemoryCandidateRepository implements CandidateRepository {
     public Collection<Candidate> findAll() {
         return candidates.values();
     }
+
+    @Override
+    public void scanAll(Consumer<Candidate> action) {
+        candidates.values().forEach(action);
+    }
+
+    @Override
+    public Collection<CandidateSummaryDto> findPage(int afterId, int limit) {
+        return candidates.values().stream()
+                .filter(candidate -> candidate.getId() > afterId)
+                .sorted(Comparator.comparingInt(Candidate::getId))
+                .limit(limit)
+                .map(candidate -> new CandidateSummaryDto(candidate.getId(), candidate.getName(), candidate.getCreationDate(),
+                        candidate.getFileId()))
+                .toList();
+    }
 }
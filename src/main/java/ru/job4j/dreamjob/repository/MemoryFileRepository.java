@@ -3,8 +3,11 @@ package ru.job4j.dreamjob.repository;
 import org.springframework.stereotype.Repository;
 import ru.job4j.dreamjob.model.File;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -15,20 +18,100 @@ public class MemoryFileRepository implements FileRepository {
 
     private final Map<Integer, File> files = new ConcurrentHashMap<>();
 
+    private final Map<Integer, Integer> references = new ConcurrentHashMap<>();
+
     @Override
     public File save(File file) {
         file.setId(nextId.incrementAndGet());
         files.put(file.getId(), file);
+        references.put(file.getId(), 1);
         return file;
     }
 
+    @Override
+    public synchronized boolean saveIfAbsent(File file) {
+        if (findByPath(file.getPath()).isPresent()) {
+            return false;
+        }
+        save(file);
+        return true;
+    }
+
     @Override
     public Optional<File> findById(int id) {
         return Optional.ofNullable(files.get(id));
     }
 
+    @Override
+    public Optional<File> findByPath(String path) {
+        return files.values().stream()
+                .filter(file -> file.getPath().equals(path))
+                .findFirst();
+    }
+
+    @Override
+    public Collection<File> findPage(int afterId, int limit) {
+        return files.values().stream()
+                .filter(file -> file.getId() > afterId)
+                .sorted(Comparator.comparingInt(File::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void updatePaths(Collection<File> updatedFiles) {
+        for (var file : updatedFiles) {
+            files.computeIfPresent(file.getId(), (id, oldFile) -> file);
+        }
+    }
+
     @Override
     public void deleteById(int id) {
         files.remove(id);
+        references.remove(id);
+    }
+
+    @Override
+    public boolean addReference(String path) {
+        var fileOptional = findByPath(path);
+        fileOptional.ifPresent(file -> references.computeIfPresent(file.getId(), (id, count) -> count + 1));
+        return fileOptional.isPresent();
+    }
+
+    @Override
+    public boolean removeReference(int id) {
+        var count = references.computeIfPresent(id, (key, value) -> value - 1);
+        if (count == null || count > 0) {
+            return false;
+        }
+        deleteById(id);
+        return true;
+    }
+
+    /* в памяти ссылки вакансий и кандидатов на файлы не видны, поэтому без ссылок считаются только строки с нулевым счётчиком */
+    @Override
+    public Collection<File> findUnreferenced(int afterId, int limit) {
+        return findPage(afterId, Integer.MAX_VALUE).stream()
+                .filter(file -> references.getOrDefault(file.getId(), 0) <= 0)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public boolean deleteUnreferenced(int id) {
+        if (references.getOrDefault(id, 0) > 0 || !files.containsKey(id)) {
+            return false;
+        }
+        deleteById(id);
+        return true;
+    }
+
+    @Override
+    public Collection<String> findExistingPaths(Collection<String> paths) {
+        var pathSet = Set.copyOf(paths);
+        return files.values().stream()
+                .map(File::getPath)
+                .filter(pathSet::contains)
+                .toList();
     }
-}
\ No newline at end of file
+}
@@ -2,14 +2,18 @@ package ru.job4j.dreamjob.repository;
 
 import net.jcip.annotations.ThreadSafe;
 import org.springframework.stereotype.Repository;
+import ru.job4j.dreamjob.dto.VacancyFilterDto;
+import ru.job4j.dreamjob.dto.VacancySummaryDto;
 import ru.job4j.dreamjob.model.Vacancy;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Repository
 @ThreadSafe
@@ -19,7 +23,7 @@ public class MemoryVacancyRepository implements VacancyRepository {
 
     private final Map<Integer, Vacancy> vacancies = new HashMap<>();
 
-    private MemoryVacancyRepository() {
+    public MemoryVacancyRepository() {
         save(new Vacancy(0, "Intern Java Developer", "Intern vacancy",
                 LocalDateTime.now(), false, 0, 0));
         save(new Vacancy(0, "Junior Java Developer", "Junior vacancy",
@@ -41,6 +45,12 @@ public class MemoryVacancyRepository implements VacancyRepository {
         return vacancy;
     }
 
+    @Override
+    public Collection<Vacancy> saveAll(Collection<Vacancy> newVacancies) {
+        newVacancies.forEach(this::save);
+        return newVacancies;
+    }
+
     @Override
     public boolean deleteById(int id) {
         return vacancies.remove(id) != null;
@@ -53,6 +63,11 @@ public class MemoryVacancyRepository implements VacancyRepository {
                         vacancy.getCreationDate(), vacancy.getVisible(), vacancy.getCityId(), vacancy.getFileId())) != null;
     }
 
+    @Override
+    public Collection<Vacancy> updateAll(Collection<Vacancy> changedVacancies) {
+        return changedVacancies.stream().filter(this::update).toList();
+    }
+
     @Override
     public Optional<Vacancy> findById(int id) {
         return Optional.ofNullable(vacancies.get(id));
@@ -62,4 +77,28 @@ public class MemoryVacancyRepository implements VacancyRepository {
     public Collection<Vacancy> findAll() {
         return vacancies.values();
     }
+
+    @Override
+    public void scanAll(Consumer<Vacancy> action) {
+        vacancies.values().forEach(action);
+    }
+
+    @Override
+    public Collection<VacancySummaryDto> findPage(VacancyFilterDto filter, LocalDateTime afterDate, int afterId, int limit) {
+        Comparator<Vacancy> order = Comparator.comparing(Vacancy::getCreationDate).thenComparingInt(Vacancy::getId);
+        var after = new Vacancy(afterId, null, null, afterDate, false, 0, 0);
+        return vacancies.values().stream()
+                .filter(vacancy -> filter.getVisible() == null || filter.getVisible() == vacancy.getVisible())
+                .filter(vacancy -> filter.getCityId() == null || filter.getCityId() == vacancy.getCityId())
+                .filter(vacancy -> filter.getDateFrom() == null
+                        || !vacancy.getCreationDate().isBefore(filter.getDateFrom().atStartOfDay()))
+                .filter(vacancy -> filter.getDateTo() == null
+                        || vacancy.getCreationDate().isBefore(filter.getDateTo().plusDays(1).atStartOfDay()))
+                .filter(vacancy -> afterDate == null || order.compare(vacancy, after) < 0)
+                .sorted(order.reversed())
+                .limit(limit)
+                .map(vacancy -> new VacancySummaryDto(vacancy.getId(), vacancy.getTitle(), vacancy.getCreationDate(),
+                        vacancy.getVisible(), vacancy.getFileId()))
+                .toList();
+    }
 }
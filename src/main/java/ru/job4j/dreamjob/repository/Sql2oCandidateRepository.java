@@ -3,18 +3,29 @@ package ru.job4j.dreamjob.repository;
 import org.springframework.stereotype.Repository;
 import org.sql2o.Sql2o;
 import org.sql2o.Sql2oException;
+import ru.job4j.dreamjob.cache.InvalidationBus;
+import ru.job4j.dreamjob.cache.InvalidationTopic;
+import ru.job4j.dreamjob.dto.CandidateSummaryDto;
 import ru.job4j.dreamjob.model.Candidate;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class Sql2oCandidateRepository implements CandidateRepository {
 
+    private static final int SCAN_CHUNK_SIZE = 10000;
+
     private final Sql2o sql2o;
 
-    public Sql2oCandidateRepository(Sql2o sql2o) {
+    private final InvalidationBus invalidationBus;
+
+    public Sql2oCandidateRepository(Sql2o sql2o, InvalidationBus invalidationBus) {
         this.sql2o = sql2o;
+        this.invalidationBus = invalidationBus;
     }
 
     @Override
@@ -32,16 +43,51 @@ public class Sql2oCandidateRepository implements CandidateRepository {
                     .addParameter("fileId", candidate.getFileId());
             int generatedId = query.executeUpdate().getKey(Integer.class);
             candidate.setId(generatedId);
+            invalidationBus.publish(InvalidationTopic.CANDIDATES, generatedId);
             return candidate;
         }
     }
 
+    /* пакетная вставка, как в Sql2oVacancyRepository.saveAll */
+    @Override
+    public Collection<Candidate> saveAll(Collection<Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        try (var connection = sql2o.open()) {
+            var sql = """
+                      INSERT INTO candidates(name, description, creation_date, city_id, file_id)
+                      VALUES (:name, :description, :creationDate, :cityId, :fileId)
+                      """;
+            var query = connection.createQuery(sql, true);
+            for (var candidate : candidates) {
+                query
+                        .addParameter("name", candidate.getName())
+                        .addParameter("description", candidate.getDescription())
+                        .addParameter("creationDate", candidate.getCreationDate())
+                        .addParameter("cityId", candidate.getCityId())
+                        .addParameter("fileId", candidate.getFileId() == 0 ? null : candidate.getFileId())
+                        .addToBatch();
+            }
+            query.executeBatch();
+            var ids = connection.getKeys(Integer.class).iterator();
+            for (var candidate : candidates) {
+                candidate.setId(ids.next());
+            }
+            return candidates;
+        }
+    }
+
     @Override
     public boolean deleteById(int id) {
         try (var connection = sql2o.open()) {
             var query = connection.createQuery("DELETE FROM candidates WHERE id = :id");
             query.addParameter("id", id);
-            return query.executeUpdate().getResult() != 0;
+            var isDeleted = query.executeUpdate().getResult() != 0;
+            if (isDeleted) {
+                invalidationBus.publish(InvalidationTopic.CANDIDATES, id);
+            }
+            return isDeleted;
         } catch (Sql2oException e) {
             return false;
         }
@@ -64,14 +110,56 @@ public class Sql2oCandidateRepository implements CandidateRepository {
                     .addParameter("fileId", candidate.getFileId())
                     .addParameter("id", candidate.getId());
             var affectedRows = query.executeUpdate().getResult();
+            if (affectedRows > 0) {
+                invalidationBus.publish(InvalidationTopic.CANDIDATES, candidate.getId());
+            }
             return affectedRows > 0;
         }
     }
 
+    @Override
+    public Collection<Candidate> updateAll(Collection<Candidate> candidates) {
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        try (var connection = sql2o.open()) {
+            var sql = """
+                    UPDATE candidates
+                    SET name = :name, description = :description, creation_date = :creationDate,
+                        city_id = :cityId
+                    WHERE id = :id
+                    """;
+            var query = connection.createQuery(sql);
+            for (var candidate : candidates) {
+                query
+                        .addParameter("name", candidate.getName())
+                        .addParameter("description", candidate.getDescription())
+                        .addParameter("creationDate", candidate.getCreationDate())
+                        .addParameter("cityId", candidate.getCityId())
+                        .addParameter("id", candidate.getId())
+                        .addToBatch();
+            }
+            var affectedRows = query.executeBatch().getBatchResult();
+            var updated = new ArrayList<Candidate>();
+            var index = 0;
+            for (var candidate : candidates) {
+                if (affectedRows[index++] != 0) {
+                    updated.add(candidate);
+                    invalidationBus.publish(InvalidationTopic.CANDIDATES, candidate.getId());
+                }
+            }
+            return updated;
+        }
+    }
+
     @Override
     public Optional<Candidate> findById(int id) {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM candidates WHERE id = :id");
+            var sql = """
+                      SELECT id, name, description, creation_date, city_id, file_id
+                      FROM candidates WHERE id = :id
+                      """;
+            var query = connection.createQuery(sql);
             query.addParameter("id", id);
             var candidate = query.setColumnMappings(Candidate.COLUMN_MAPPING).executeAndFetchFirst(Candidate.class);
             return Optional.ofNullable(candidate);
@@ -81,8 +169,67 @@ public class Sql2oCandidateRepository implements CandidateRepository {
     @Override
     public Collection<Candidate> findAll() {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM candidates");
+            var sql = """
+                      SELECT id, name, description, creation_date, city_id, file_id
+                      FROM candidates
+                      """;
+            var query = connection.createQuery(sql);
             return query.setColumnMappings(Candidate.COLUMN_MAPPING).executeAndFetch(Candidate.class);
         }
     }
+
+    /*
+     * Строки читаются по одной без загрузки всей таблицы в память. Драйвер PostgreSQL получает их порциями
+     * по defaultRowFetchSize только вне режима автофиксации, поэтому чтение идёт в транзакции.
+     * Таблица обходится по ключу кусками по SCAN_CHUNK_SIZE строк, каждый своим курсором: одно соединение на весь обход
+     * пул закрыл бы как брошенное (чтение ResultSet не продлевает его), а долгая транзакция мешала бы VACUUM.
+     */
+    @Override
+    public void scanAll(Consumer<Candidate> action) {
+        var afterId = 0;
+        var scanned = SCAN_CHUNK_SIZE;
+        while (scanned == SCAN_CHUNK_SIZE) {
+            scanned = 0;
+            try (var connection = sql2o.beginTransaction()) {
+                var sql = """
+                          SELECT id, name, description, creation_date, city_id, file_id
+                          FROM candidates WHERE id > :afterId
+                          ORDER BY id
+                          LIMIT :limit
+                          """;
+                var query = connection.createQuery(sql)
+                        .addParameter("afterId", afterId)
+                        .addParameter("limit", SCAN_CHUNK_SIZE)
+                        .setColumnMappings(Candidate.COLUMN_MAPPING);
+                try (var rows = query.executeAndFetchLazy(Candidate.class)) {
+                    for (var candidate : rows) {
+                        action.accept(candidate);
+                        afterId = candidate.getId();
+                        scanned++;
+                    }
+                }
+                connection.commit();
+            }
+        }
+    }
+
+    /*
+     * Выборка по ключу идёт по первичному ключу и не зависит от номера страницы, в отличие от OFFSET.
+     * Для списка читаются только выводимые колонки, без описания неограниченной длины.
+     */
+    @Override
+    public Collection<CandidateSummaryDto> findPage(int afterId, int limit) {
+        try (var connection = sql2o.open()) {
+            var sql = """
+                      SELECT id, name, creation_date, file_id FROM candidates
+                      WHERE id > :afterId
+                      ORDER BY id
+                      LIMIT :limit
+                      """;
+            var query = connection.createQuery(sql)
+                    .addParameter("afterId", afterId)
+                    .addParameter("limit", limit);
+            return query.setColumnMappings(CandidateSummaryDto.COLUMN_MAPPING).executeAndFetch(CandidateSummaryDto.class);
+        }
+    }
 }
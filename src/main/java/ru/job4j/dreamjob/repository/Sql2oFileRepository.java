@@ -2,13 +2,19 @@ package ru.job4j.dreamjob.repository;
 
 import org.springframework.stereotype.Repository;
 import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
 import ru.job4j.dreamjob.model.File;
 
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class Sql2oFileRepository implements FileRepository {
 
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION = "23";
+
     private final Sql2o sql2o;
 
     public Sql2oFileRepository(Sql2o sql2o) {
@@ -18,24 +24,98 @@ public class Sql2oFileRepository implements FileRepository {
     @Override
     public File save(File file) {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("INSERT INTO files (name, path) VALUES (:name, :path)", true)
+            var sql = """
+                      INSERT INTO files (name, path, size, checksum)
+                      VALUES (:name, :path, :size, :checksum)
+                      """;
+            var query = connection.createQuery(sql, true)
                     .addParameter("name", file.getName())
-                    .addParameter("path", file.getPath());
+                    .addParameter("path", file.getPath())
+                    .addParameter("size", file.getSize())
+                    .addParameter("checksum", file.getChecksum());
             int generatedId = query.executeUpdate().getKey(Integer.class);
             file.setId(generatedId);
             return file;
         }
     }
 
+    /*
+     * Вставка не выполняется, если строка с таким путём уже есть. Строка из незафиксированной транзакции
+     * блокирует вставку до завершения той транзакции, поэтому одновременная загрузка одинакового содержимого
+     * не падает на уникальности path, а после фиксации первой строки получает false.
+     */
+    @Override
+    public boolean saveIfAbsent(File file) {
+        try (var connection = sql2o.open()) {
+            var sql = """
+                      INSERT INTO files (name, path, size, checksum)
+                      VALUES (:name, :path, :size, :checksum)
+                      ON CONFLICT DO NOTHING
+                      """;
+            var query = connection.createQuery(sql, true)
+                    .addParameter("name", file.getName())
+                    .addParameter("path", file.getPath())
+                    .addParameter("size", file.getSize())
+                    .addParameter("checksum", file.getChecksum());
+            if (query.executeUpdate().getResult() == 0) {
+                return false;
+            }
+            file.setId(connection.getKey(Integer.class));
+            return true;
+        }
+    }
+
     @Override
     public Optional<File> findById(int id) {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM files WHERE id = :id");
+            var query = connection.createQuery("SELECT id, name, path, size, checksum FROM files WHERE id = :id");
             var file = query.addParameter("id", id).executeAndFetchFirst(File.class);
             return Optional.ofNullable(file);
         }
     }
 
+    @Override
+    public Optional<File> findByPath(String path) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT id, name, path, size, checksum FROM files WHERE path = :path");
+            var file = query.addParameter("path", path).executeAndFetchFirst(File.class);
+            return Optional.ofNullable(file);
+        }
+    }
+
+    @Override
+    public Collection<File> findPage(int afterId, int limit) {
+        try (var connection = sql2o.open()) {
+            var sql = """
+                      SELECT id, name, path, size, checksum FROM files
+                      WHERE id > :afterId
+                      ORDER BY id
+                      LIMIT :limit
+                      """;
+            var query = connection.createQuery(sql)
+                    .addParameter("afterId", afterId)
+                    .addParameter("limit", limit);
+            return query.executeAndFetch(File.class);
+        }
+    }
+
+    @Override
+    public void updatePaths(Collection<File> files) {
+        if (files.isEmpty()) {
+            return;
+        }
+        try (var connection = sql2o.beginTransaction()) {
+            var query = connection.createQuery("UPDATE files SET path = :path WHERE id = :id");
+            for (var file : files) {
+                query.addParameter("path", file.getPath())
+                        .addParameter("id", file.getId())
+                        .addToBatch();
+            }
+            query.executeBatch();
+            connection.commit();
+        }
+    }
+
     @Override
     public void deleteById(int id) {
         try (var connection = sql2o.open()) {
@@ -43,4 +123,81 @@ public class Sql2oFileRepository implements FileRepository {
             query.addParameter("id", id).executeUpdate();
         }
     }
+
+    @Override
+    public boolean addReference(String path) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("UPDATE files SET ref_count = ref_count + 1 WHERE path = :path");
+            return query.addParameter("path", path).executeUpdate().getResult() > 0;
+        }
+    }
+
+    /* строка удаляется отдельным запросом только если после уменьшения ссылок не осталось */
+    @Override
+    public boolean removeReference(int id) {
+        try (var connection = sql2o.open()) {
+            connection.createQuery("UPDATE files SET ref_count = ref_count - 1 WHERE id = :id")
+                    .addParameter("id", id)
+                    .executeUpdate();
+            var query = connection.createQuery("DELETE FROM files WHERE id = :id AND ref_count <= 0");
+            return query.addParameter("id", id).executeUpdate().getResult() > 0;
+        }
+    }
+
+    @Override
+    public Collection<File> findUnreferenced(int afterId, int limit) {
+        try (var connection = sql2o.open()) {
+            var sql = """
+                      SELECT id, name, path, size, checksum FROM files f
+                      WHERE f.id > :afterId
+                      AND NOT EXISTS (SELECT 1 FROM vacancies v WHERE v.file_id = f.id)
+                      AND NOT EXISTS (SELECT 1 FROM candidates c WHERE c.file_id = f.id)
+                      ORDER BY f.id
+                      LIMIT :limit
+                      """;
+            var query = connection.createQuery(sql)
+                    .addParameter("afterId", afterId)
+                    .addParameter("limit", limit);
+            return query.executeAndFetch(File.class);
+        }
+    }
+
+    /* условие проверяется повторно при удалении: между выборкой и удалением на файл могла появиться ссылка */
+    @Override
+    public boolean deleteUnreferenced(int id) {
+        try (var connection = sql2o.open()) {
+            var sql = """
+                      DELETE FROM files f
+                      WHERE f.id = :id
+                      AND NOT EXISTS (SELECT 1 FROM vacancies v WHERE v.file_id = f.id)
+                      AND NOT EXISTS (SELECT 1 FROM candidates c WHERE c.file_id = f.id)
+                      """;
+            var query = connection.createQuery(sql);
+            return query.addParameter("id", id).executeUpdate().getResult() > 0;
+        } catch (Sql2oException e) {
+            /* ссылка из ещё не зафиксированной транзакции: строку удалять нельзя; прочие ошибки пробрасываются */
+            if (isConstraintViolation(e)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /* класс SQLSTATE 23 - нарушение ограничения целостности, в том числе внешнего ключа */
+    private static boolean isConstraintViolation(Sql2oException e) {
+        return e.getCause() instanceof SQLException sqlException
+                && sqlException.getSQLState() != null
+                && sqlException.getSQLState().startsWith(INTEGRITY_CONSTRAINT_VIOLATION);
+    }
+
+    @Override
+    public Collection<String> findExistingPaths(Collection<String> paths) {
+        if (paths.isEmpty()) {
+            return List.of();
+        }
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT path FROM files WHERE path IN (:paths)");
+            return query.addParameter("paths", paths).executeScalarList(String.class);
+        }
+    }
 }
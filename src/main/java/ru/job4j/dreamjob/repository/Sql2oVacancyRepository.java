@@ -3,18 +3,33 @@ package ru.job4j.dreamjob.repository;
 import org.springframework.stereotype.Repository;
 import org.sql2o.Sql2o;
 import org.sql2o.Sql2oException;
+import ru.job4j.dreamjob.cache.InvalidationBus;
+import ru.job4j.dreamjob.cache.InvalidationTopic;
+import ru.job4j.dreamjob.dto.VacancyFilterDto;
+import ru.job4j.dreamjob.dto.VacancySummaryDto;
 import ru.job4j.dreamjob.model.Vacancy;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class Sql2oVacancyRepository implements VacancyRepository {
 
+    private static final int SCAN_CHUNK_SIZE = 10000;
+
     private final Sql2o sql2o;
 
-    public Sql2oVacancyRepository(Sql2o sql2o) {
+    private final InvalidationBus invalidationBus;
+
+    public Sql2oVacancyRepository(Sql2o sql2o, InvalidationBus invalidationBus) {
         this.sql2o = sql2o;
+        this.invalidationBus = invalidationBus;
     }
 
     @Override
@@ -33,16 +48,56 @@ public class Sql2oVacancyRepository implements VacancyRepository {
                     .addParameter("fileId", vacancy.getFileId());
             int generatedId = query.executeUpdate().getKey(Integer.class);
             vacancy.setId(generatedId);
+            invalidationBus.publish(InvalidationTopic.VACANCIES, generatedId);
             return vacancy;
         }
     }
 
+    /*
+     * Строки вставляются одним пакетом JDBC на соединении текущей транзакции, ключи читаются после executeBatch.
+     * Рассылка инвалидации не нужна: новые идентификаторы ещё не могли попасть в кеши.
+     * Нулевой file_id пишется как NULL, у импортированных записей нет картинки.
+     */
+    @Override
+    public Collection<Vacancy> saveAll(Collection<Vacancy> vacancies) {
+        if (vacancies.isEmpty()) {
+            return vacancies;
+        }
+        try (var connection = sql2o.open()) {
+            var sql = """
+                      INSERT INTO vacancies(title, description, creation_date, visible, city_id, file_id)
+                      VALUES (:title, :description, :creationDate, :visible, :cityId, :fileId)
+                      """;
+            var query = connection.createQuery(sql, true);
+            for (var vacancy : vacancies) {
+                query
+                        .addParameter("title", vacancy.getTitle())
+                        .addParameter("description", vacancy.getDescription())
+                        .addParameter("creationDate", vacancy.getCreationDate())
+                        .addParameter("visible", vacancy.getVisible())
+                        .addParameter("cityId", vacancy.getCityId())
+                        .addParameter("fileId", vacancy.getFileId() == 0 ? null : vacancy.getFileId())
+                        .addToBatch();
+            }
+            query.executeBatch();
+            var ids = connection.getKeys(Integer.class).iterator();
+            for (var vacancy : vacancies) {
+                vacancy.setId(ids.next());
+            }
+            return vacancies;
+        }
+    }
+
     @Override
     public boolean deleteById(int id) {
         try (var connection = sql2o.open()) {
             var query = connection.createQuery("DELETE FROM vacancies WHERE id = :id");
             query.addParameter("id", id);
-            return query.executeUpdate().getResult() != 0;
+            var isDeleted = query.executeUpdate().getResult() != 0;
+            if (isDeleted) {
+                invalidationBus.publish(InvalidationTopic.VACANCIES, id);
+            }
+            return isDeleted;
         } catch (Sql2oException e) {
             return false;
         }
@@ -66,14 +121,58 @@ public class Sql2oVacancyRepository implements VacancyRepository {
                     .addParameter("fileId", vacancy.getFileId())
                     .addParameter("id", vacancy.getId());
             var affectedRows = query.executeUpdate().getResult();
+            if (affectedRows > 0) {
+                invalidationBus.publish(InvalidationTopic.VACANCIES, vacancy.getId());
+            }
             return affectedRows > 0;
         }
     }
 
+    /* пакетное обновление не меняет file_id: импорт не передаёт картинки, и ссылки на файлы должны сохраниться */
+    @Override
+    public Collection<Vacancy> updateAll(Collection<Vacancy> vacancies) {
+        if (vacancies.isEmpty()) {
+            return List.of();
+        }
+        try (var connection = sql2o.open()) {
+            var sql = """
+                    UPDATE vacancies
+                    SET title = :title, description = :description, creation_date = :creationDate,
+                        visible = :visible, city_id = :cityId
+                    WHERE id = :id
+                    """;
+            var query = connection.createQuery(sql);
+            for (var vacancy : vacancies) {
+                query
+                        .addParameter("title", vacancy.getTitle())
+                        .addParameter("description", vacancy.getDescription())
+                        .addParameter("creationDate", vacancy.getCreationDate())
+                        .addParameter("visible", vacancy.getVisible())
+                        .addParameter("cityId", vacancy.getCityId())
+                        .addParameter("id", vacancy.getId())
+                        .addToBatch();
+            }
+            var affectedRows = query.executeBatch().getBatchResult();
+            var updated = new ArrayList<Vacancy>();
+            var index = 0;
+            for (var vacancy : vacancies) {
+                if (affectedRows[index++] != 0) {
+                    updated.add(vacancy);
+                    invalidationBus.publish(InvalidationTopic.VACANCIES, vacancy.getId());
+                }
+            }
+            return updated;
+        }
+    }
+
     @Override
     public Optional<Vacancy> findById(int id) {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM vacancies WHERE id = :id");
+            var sql = """
+                      SELECT id, title, description, creation_date, visible, city_id, file_id
+                      FROM vacancies WHERE id = :id
+                      """;
+            var query = connection.createQuery(sql);
             query.addParameter("id", id);
             var vacancy = query.setColumnMappings(Vacancy.COLUMN_MAPPING).executeAndFetchFirst(Vacancy.class);
             return Optional.ofNullable(vacancy);
@@ -83,8 +182,89 @@ public class Sql2oVacancyRepository implements VacancyRepository {
     @Override
     public Collection<Vacancy> findAll() {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM vacancies");
+            var sql = """
+                      SELECT id, title, description, creation_date, visible, city_id, file_id
+                      FROM vacancies
+                      """;
+            var query = connection.createQuery(sql);
             return query.setColumnMappings(Vacancy.COLUMN_MAPPING).executeAndFetch(Vacancy.class);
         }
     }
-}
\ No newline at end of file
+
+    /* потоковое чтение кусками по ключу, как в Sql2oCandidateRepository.scanAll */
+    @Override
+    public void scanAll(Consumer<Vacancy> action) {
+        var afterId = 0;
+        var scanned = SCAN_CHUNK_SIZE;
+        while (scanned == SCAN_CHUNK_SIZE) {
+            scanned = 0;
+            try (var connection = sql2o.beginTransaction()) {
+                var sql = """
+                          SELECT id, title, description, creation_date, visible, city_id, file_id
+                          FROM vacancies WHERE id > :afterId
+                          ORDER BY id
+                          LIMIT :limit
+                          """;
+                var query = connection.createQuery(sql)
+                        .addParameter("afterId", afterId)
+                        .addParameter("limit", SCAN_CHUNK_SIZE)
+                        .setColumnMappings(Vacancy.COLUMN_MAPPING);
+                try (var rows = query.executeAndFetchLazy(Vacancy.class)) {
+                    for (var vacancy : rows) {
+                        action.accept(vacancy);
+                        afterId = vacancy.getId();
+                        scanned++;
+                    }
+                }
+                connection.commit();
+            }
+        }
+    }
+
+    /*
+     * Выборка по ключу не зависит от номера страницы, в отличие от OFFSET; читаются только выводимые колонки.
+     * Условия добавляются только для заданных полей фильтра, поэтому запрос обслуживают индексы
+     * (visible, city_id, creation_date DESC, id DESC) и (creation_date DESC, id DESC).
+     * С фильтром и без вакансии идут от новых к старым, а курсор - пара (creation_date, id)
+     * последней показанной вакансии, поэтому её удаление не обрывает листание.
+     */
+    @Override
+    public Collection<VacancySummaryDto> findPage(VacancyFilterDto filter, LocalDateTime afterDate, int afterId, int limit) {
+        var conditions = new ArrayList<String>();
+        var parameters = new HashMap<String, Object>();
+        if (filter.getVisible() != null) {
+            conditions.add("v.visible = :visible");
+            parameters.put("visible", filter.getVisible());
+        }
+        if (filter.getCityId() != null) {
+            conditions.add("v.city_id = :cityId");
+            parameters.put("cityId", filter.getCityId());
+        }
+        if (filter.getDateFrom() != null) {
+            conditions.add("v.creation_date >= :dateFrom");
+            parameters.put("dateFrom", filter.getDateFrom().atStartOfDay());
+        }
+        if (filter.getDateTo() != null) {
+            conditions.add("v.creation_date < :dateTo");
+            parameters.put("dateTo", filter.getDateTo().plusDays(1).atStartOfDay());
+        }
+        if (afterDate != null) {
+            conditions.add("(v.creation_date, v.id) < (:afterDate, :afterId)");
+            parameters.put("afterDate", afterDate);
+            parameters.put("afterId", afterId);
+        }
+        var sql = new StringBuilder("SELECT v.id, v.title, v.creation_date, v.visible, v.file_id FROM vacancies v\n");
+        if (!conditions.isEmpty()) {
+            sql.append("WHERE ").append(String.join(" AND ", conditions)).append('\n');
+        }
+        sql.append("ORDER BY v.creation_date DESC, v.id DESC\nLIMIT :limit");
+        parameters.put("limit", limit);
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery(sql.toString());
+            for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+                query.addParameter(parameter.getKey(), parameter.getValue());
+            }
+            return query.setColumnMappings(VacancySummaryDto.COLUMN_MAPPING).executeAndFetch(VacancySummaryDto.class);
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package ru.job4j.dreamjob.repository;
 
+import ru.job4j.dreamjob.dto.VacancyFilterDto;
+import ru.job4j.dreamjob.dto.VacancySummaryDto;
 import ru.job4j.dreamjob.model.Vacancy;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface VacancyRepository {
 
     Vacancy save(Vacancy vacancy);
 
+    Collection<Vacancy> saveAll(Collection<Vacancy> vacancies);
+
     boolean deleteById(int id);
 
     boolean update(Vacancy vacancy);
 
+    Collection<Vacancy> updateAll(Collection<Vacancy> vacancies);
+
     Optional<Vacancy> findById(int id);
 
     Collection<Vacancy> findAll();
 
+    void scanAll(Consumer<Vacancy> action);
+
+    Collection<VacancySummaryDto> findPage(VacancyFilterDto filter, LocalDateTime afterDate, int afterId, int limit);
+
 }
@@ -0,0 +1,410 @@
+package ru.job4j.dreamjob.search;
+
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.job4j.dreamjob.dto.SearchHitDto;
+import ru.job4j.dreamjob.dto.SearchIndexStatsDto;
+import ru.job4j.dreamjob.repository.CandidateRepository;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/*
+ * Обратный индекс в памяти процесса для баз без полнотекстового поиска (H2 в тестах).
+ * Для каждого слова хранится PostingList - документы с весом вхождения: слово названия весит TITLE_WEIGHT, описания - 1.
+ * Слова запроса объединяются по И, части запроса через OR или | - по ИЛИ, слово со звёздочкой ищется по префиксу.
+ * Ранжирование по BM25 без учёта длины документа.
+ */
+@Component
+@ThreadSafe
+@ConditionalOnProperty(name = "search.engine", havingValue = "memory")
+public class MemorySearchIndex implements SearchIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemorySearchIndex.class);
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Pattern OR_OPERATOR = Pattern.compile("\\s+OR\\s+|\\|");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final String PREFIX_OPERATOR = "*";
+
+    /* префикс из одной-двух букв разворачивается не более чем в столько слов, чтобы запрос не обходил весь словарь */
+    static final int MAX_PREFIX_TERMS = 256;
+
+    private static final int TITLE_WEIGHT = 3;
+
+    private static final double SATURATION = 1.2;
+
+    private final Map<SearchType, Shard> shards = new EnumMap<>(SearchType.class);
+
+    private final VacancyRepository vacancyRepository;
+
+    private final CandidateRepository candidateRepository;
+
+    public MemorySearchIndex(VacancyRepository sql2oVacancyRepository, CandidateRepository sql2oCandidateRepository) {
+        this.vacancyRepository = sql2oVacancyRepository;
+        this.candidateRepository = sql2oCandidateRepository;
+        for (var type : SearchType.values()) {
+            shards.put(type, new Shard());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        vacancyRepository.scanAll(vacancy ->
+                put(SearchType.VACANCY, vacancy.getId(), vacancy.getTitle(), vacancy.getDescription()));
+        candidateRepository.scanAll(candidate ->
+                put(SearchType.CANDIDATE, candidate.getId(), candidate.getName(), candidate.getDescription()));
+        for (var type : SearchType.values()) {
+            LOGGER.info("Search index {} rebuilt: {}", type, getStats(type));
+        }
+    }
+
+    public SearchIndexStatsDto getStats(SearchType type) {
+        return shards.get(type).stats();
+    }
+
+    /* изменения индекса применяются после фиксации транзакции, чтобы в поиск не попали откаченные строки */
+    @Override
+    public void put(SearchType type, int id, String title, String text) {
+        var weights = new HashMap<String, Integer>();
+        addTerms(weights, title, TITLE_WEIGHT);
+        addTerms(weights, text, 1);
+        afterCommit(() -> shards.get(type).put(id, title, weights));
+    }
+
+    @Override
+    public void remove(SearchType type, int id) {
+        afterCommit(() -> shards.get(type).remove(id));
+    }
+
+    @Override
+    public List<SearchHitDto> search(SearchType type, String query, int offset, int limit) {
+        var clauses = parse(query);
+        if (clauses.isEmpty()) {
+            return List.of();
+        }
+        return shards.get(type).search(clauses, offset, limit);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static List<List<Term>> parse(String query) {
+        var clauses = new ArrayList<List<Term>>();
+        for (var part : OR_OPERATOR.split(query)) {
+            var clause = new ArrayList<Term>();
+            for (var word : WHITESPACE.split(part)) {
+                var isPrefix = word.endsWith(PREFIX_OPERATOR);
+                var terms = Arrays.stream(SEPARATOR.split(normalize(word))).filter(term -> !term.isEmpty()).toList();
+                for (int i = 0; i < terms.size(); i++) {
+                    clause.add(new Term(terms.get(i), isPrefix && i == terms.size() - 1));
+                }
+            }
+            if (!clause.isEmpty()) {
+                clauses.add(clause);
+            }
+        }
+        return clauses;
+    }
+
+    private static void addTerms(Map<String, Integer> weights, String text, int weight) {
+        if (text == null) {
+            return;
+        }
+        for (var term : SEPARATOR.split(normalize(text))) {
+            if (!term.isEmpty()) {
+                weights.merge(term, weight, Integer::sum);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    private static final class Shard {
+
+        private static final int MAP_ENTRY_BYTES = 40;
+
+        private static final int OBJECT_BYTES = 24;
+
+        private static final int BOXED_INTEGER_BYTES = 16;
+
+        private static final int ARRAY_HEADER_BYTES = 16;
+
+        private static final int REFERENCE_BYTES = 4;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /* словарь упорядочен, чтобы слова с общим префиксом шли подряд */
+        private final TreeMap<String, PostingList> postings = new TreeMap<>();
+
+        private final Map<Integer, Document> documents = new HashMap<>();
+
+        private void put(int id, String title, Map<String, Integer> weights) {
+            lock.writeLock().lock();
+            try {
+                removeDocument(id);
+                var terms = new String[weights.size()];
+                var position = 0;
+                for (var entry : weights.entrySet()) {
+                    terms[position++] = addPosting(entry.getKey(), id, entry.getValue());
+                }
+                documents.put(id, new Document(title, terms));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /* документ ссылается на строку-ключ словаря, чтобы одно слово не хранилось в памяти по копии на документ */
+        private String addPosting(String term, int id, int weight) {
+            var entry = postings.ceilingEntry(term);
+            if (entry != null && entry.getKey().equals(term)) {
+                entry.getValue().put(id, weight);
+                return entry.getKey();
+            }
+            var termPostings = new PostingList();
+            termPostings.put(id, weight);
+            postings.put(term, termPostings);
+            return term;
+        }
+
+        private void remove(int id) {
+            lock.writeLock().lock();
+            try {
+                removeDocument(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeDocument(int id) {
+            var document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (var term : document.terms) {
+                var termPostings = postings.get(term);
+                termPostings.remove(id);
+                if (termPostings.size() == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        private List<SearchHitDto> search(List<List<Term>> clauses, int offset, int limit) {
+            lock.readLock().lock();
+            try {
+                Matches matches = null;
+                for (var clause : clauses) {
+                    var clauseMatches = match(clause);
+                    matches = matches == null ? clauseMatches : matches.or(clauseMatches);
+                }
+                return top(matches, offset, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /* пересечение идёт по самому короткому списку, в остальных курсор сдвигается двоичным поиском */
+        private Matches match(List<Term> clause) {
+            var termPostings = new ArrayList<PostingList>();
+            for (var term : clause) {
+                var documentWeights = term.prefix ? findByPrefix(term.text) : postings.get(term.text);
+                if (documentWeights == null || documentWeights.size() == 0) {
+                    return new Matches(0);
+                }
+                termPostings.add(documentWeights);
+            }
+            termPostings.sort(Comparator.comparingInt(PostingList::size));
+            var rarest = termPostings.get(0);
+            var cursors = new int[termPostings.size()];
+            var matches = new Matches(rarest.size());
+            for (int i = 0; i < rarest.size(); i++) {
+                var id = rarest.id(i);
+                var rank = score(rarest, i);
+                for (int j = 1; j < termPostings.size() && rank >= 0; j++) {
+                    var documentWeights = termPostings.get(j);
+                    cursors[j] = documentWeights.seek(id, cursors[j]);
+                    if (cursors[j] < documentWeights.size() && documentWeights.id(cursors[j]) == id) {
+                        rank += score(documentWeights, cursors[j]);
+                    } else {
+                        rank = -1;
+                    }
+                }
+                if (rank >= 0) {
+                    matches.add(id, rank);
+                }
+            }
+            return matches;
+        }
+
+        private PostingList findByPrefix(String prefix) {
+            var lists = new ArrayList<PostingList>();
+            for (var termPostings : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+                if (lists.size() == MAX_PREFIX_TERMS) {
+                    LOGGER.warn("Prefix {}* matches more than {} terms, the rest are not searched", prefix, MAX_PREFIX_TERMS);
+                    break;
+                }
+                lists.add(termPostings);
+            }
+            return lists.size() == 1 ? lists.get(0) : PostingList.union(lists);
+        }
+
+        private double score(PostingList documentWeights, int index) {
+            var weight = documentWeights.weight(index);
+            return idf(documentWeights.size()) * weight * (SATURATION + 1) / (weight + SATURATION);
+        }
+
+        private double idf(int documentFrequency) {
+            return Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        }
+
+        /* в куче держатся только offset + limit лучших совпадений, худшее на вершине */
+        private List<SearchHitDto> top(Matches matches, int offset, int limit) {
+            var capacity = offset + limit;
+            if (capacity <= 0) {
+                return List.of();
+            }
+            var order = Comparator.comparingDouble(SearchHitDto::getRank).thenComparingInt(SearchHitDto::getId);
+            var heap = new PriorityQueue<>(Math.min(capacity, Math.max(matches.size, 1)), order);
+            for (int i = 0; i < matches.size; i++) {
+                var id = matches.ids[i];
+                var rank = matches.ranks[i];
+                if (heap.size() < capacity) {
+                    heap.add(new SearchHitDto(id, documents.get(id).title, rank));
+                } else if (rank > heap.peek().getRank() || rank == heap.peek().getRank() && id > heap.peek().getId()) {
+                    heap.poll();
+                    heap.add(new SearchHitDto(id, documents.get(id).title, rank));
+                }
+            }
+            var hits = new ArrayList<>(heap);
+            hits.sort(order.reversed());
+            return List.copyOf(hits.subList(Math.min(offset, hits.size()), hits.size()));
+        }
+
+        /* оценка по размерам заголовков объектов и массивов сжатых ссылок 64-битной JVM */
+        private SearchIndexStatsDto stats() {
+            lock.readLock().lock();
+            try {
+                var postingCount = 0L;
+                var bytes = 0L;
+                for (var entry : postings.entrySet()) {
+                    postingCount += entry.getValue().size();
+                    bytes += MAP_ENTRY_BYTES + stringBytes(entry.getKey()) + entry.getValue().estimatedBytes();
+                }
+                for (var document : documents.values()) {
+                    bytes += MAP_ENTRY_BYTES + BOXED_INTEGER_BYTES + OBJECT_BYTES + stringBytes(document.title)
+                            + ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * document.terms.length;
+                }
+                return new SearchIndexStatsDto(documents.size(), postings.size(), postingCount, bytes);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private static long stringBytes(String text) {
+            if (text == null) {
+                return 0;
+            }
+            var isLatin1 = text.chars().allMatch(character -> character < 256);
+            return OBJECT_BYTES + ARRAY_HEADER_BYTES + (long) text.length() * (isLatin1 ? 1 : 2);
+        }
+    }
+
+    /* совпадения по возрастанию id, чтобы части запроса через ИЛИ сливались за один проход */
+    private static final class Matches {
+
+        private int[] ids;
+
+        private double[] ranks;
+
+        private int size;
+
+        private Matches(int capacity) {
+            ids = new int[capacity];
+            ranks = new double[capacity];
+        }
+
+        private void add(int id, double rank) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2 + 1);
+                ranks = Arrays.copyOf(ranks, size * 2 + 1);
+            }
+            ids[size] = id;
+            ranks[size] = rank;
+            size++;
+        }
+
+        private Matches or(Matches other) {
+            var result = new Matches(size + other.size);
+            int i = 0;
+            int j = 0;
+            while (i < size || j < other.size) {
+                if (j == other.size || i < size && ids[i] < other.ids[j]) {
+                    result.add(ids[i], ranks[i++]);
+                } else if (i == size || other.ids[j] < ids[i]) {
+                    result.add(other.ids[j], other.ranks[j++]);
+                } else {
+                    result.add(ids[i], ranks[i++] + other.ranks[j++]);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class Term {
+
+        private final String text;
+
+        private final boolean prefix;
+
+        private Term(String text, boolean prefix) {
+            this.text = text;
+            this.prefix = prefix;
+        }
+    }
+
+    private static final class Document {
+
+        private final String title;
+
+        private final String[] terms;
+
+        private Document(String title, String[] terms) {
+            this.title = title;
+            this.terms = terms;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ru.job4j.dreamjob.search;
+
+import java.util.Arrays;
+
+/*
+ * Список вхождений слова: идентификаторы документов по возрастанию и веса вхождений в двух массивах int.
+ * Новые документы получают растущие идентификаторы, поэтому вставка обычно дописывает в конец без сдвига.
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 2;
+
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private static final int OBJECT_BYTES = 24;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+
+    private int[] weights = new int[INITIAL_CAPACITY];
+
+    private int size;
+
+    void put(int id, int weight) {
+        var index = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            weights[index] = weight;
+            return;
+        }
+        var insertAt = -(index + 1);
+        if (size == ids.length) {
+            var capacity = size + (size >> 1) + 1;
+            ids = Arrays.copyOf(ids, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        System.arraycopy(weights, insertAt, weights, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        weights[insertAt] = weight;
+        size++;
+    }
+
+    void remove(int id) {
+        var index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        System.arraycopy(weights, index + 1, weights, index, size - index - 1);
+        size--;
+        if (size > INITIAL_CAPACITY && size < ids.length / 4) {
+            ids = Arrays.copyOf(ids, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int id(int index) {
+        return ids[index];
+    }
+
+    int weight(int index) {
+        return weights[index];
+    }
+
+    /* позиция первого идентификатора не меньше id начиная с from; списки пересекаются сдвигом курсора вперёд */
+    int seek(int id, int from) {
+        if (from >= size || ids[from] >= id) {
+            return from;
+        }
+        var index = Arrays.binarySearch(ids, from, size, id);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    long estimatedBytes() {
+        return OBJECT_BYTES + 2L * (ARRAY_HEADER_BYTES + (long) Integer.BYTES * ids.length);
+    }
+
+    /* объединение списков для запроса по префиксу: веса одного документа складываются */
+    static PostingList union(Iterable<PostingList> lists) {
+        var total = 0;
+        for (var list : lists) {
+            total += list.size;
+        }
+        var packed = new long[total];
+        var position = 0;
+        for (var list : lists) {
+            for (int i = 0; i < list.size; i++) {
+                packed[position++] = (long) list.ids[i] << Integer.SIZE | list.weights[i] & 0xFFFFFFFFL;
+            }
+        }
+        Arrays.sort(packed);
+        var result = new PostingList();
+        for (var entry : packed) {
+            var id = (int) (entry >>> Integer.SIZE);
+            var weight = (int) entry;
+            if (result.size > 0 && result.ids[result.size - 1] == id) {
+                result.weights[result.size - 1] += weight;
+            } else {
+                result.put(id, weight);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.job4j.dreamjob.search;
+
+import ru.job4j.dreamjob.dto.SearchHitDto;
+
+import java.util.List;
+
+public interface SearchIndex {
+
+    void put(SearchType type, int id, String title, String text);
+
+    void remove(SearchType type, int id);
+
+    List<SearchHitDto> search(SearchType type, String query, int offset, int limit);
+}
@@ -0,0 +1,17 @@
+package ru.job4j.dreamjob.search;
+
+public enum SearchType {
+
+    VACANCY("vacancies"),
+    CANDIDATE("candidates");
+
+    private final String path;
+
+    SearchType(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.job4j.dreamjob.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.dto.SearchHitDto;
+
+import java.util.List;
+
+/*
+ * Поиск по колонкам search_vector (tsvector с индексом GIN). Колонки вычисляемые (GENERATED ... STORED),
+ * поэтому база обновляет их при каждой вставке и изменении строки репозиторием, и put/remove ничего не делают.
+ * Название весит больше описания (веса A и B), запрос разбирается websearch_to_tsquery: слова, "фразы", -исключения, or.
+ */
+@Component
+@ConditionalOnProperty(name = "search.engine", havingValue = "postgres", matchIfMissing = true)
+public class Sql2oSearchIndex implements SearchIndex {
+
+    private final Sql2o sql2o;
+
+    public Sql2oSearchIndex(Sql2o sql2o) {
+        this.sql2o = sql2o;
+    }
+
+    @Override
+    public void put(SearchType type, int id, String title, String text) {
+    }
+
+    @Override
+    public void remove(SearchType type, int id) {
+    }
+
+    @Override
+    public List<SearchHitDto> search(SearchType type, String query, int offset, int limit) {
+        var titleColumn = type == SearchType.VACANCY ? "title" : "name";
+        var table = type == SearchType.VACANCY ? "vacancies" : "candidates";
+        var sql = """
+                  SELECT d.id, d.%s AS title, ts_rank(d.search_vector, q) AS rank
+                  FROM %s d, websearch_to_tsquery('russian', :query) q
+                  WHERE d.search_vector @@ q
+                  ORDER BY rank DESC, d.id DESC
+                  LIMIT :limit OFFSET :offset
+                  """.formatted(titleColumn, table);
+        try (var connection = sql2o.open()) {
+            var sqlQuery = connection.createQuery(sql)
+                    .addParameter("query", query)
+                    .addParameter("limit", limit)
+                    .addParameter("offset", offset);
+            return sqlQuery.executeAndFetch(SearchHitDto.class);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Переносит файлы из промежуточного каталога в хранилище в фоне: сбрасывает содержимое на диск (fsync)
+ * и атомарно перемещает его на итоговый путь. Пока перенос не завершён, файл читается из промежуточного каталога.
+ * Если очередь заполнена, перенос выполняет вызывающий поток.
+ */
+@Component
+@ThreadSafe
+public class AsyncFileWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncFileWriter.class);
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final Map<String, Path> pending = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor executor;
+
+    public AsyncFileWriter(@Value("${file.writer.threads:2}") int threads,
+                           @Value("${file.writer.queue-capacity:1000}") int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    var thread = new Thread(runnable, "file-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /* при остановке дописываем всё, что уже в очереди, остальное подберёт восстановление при старте */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void write(Path stagedPath, String targetPath, Runnable onWritten) {
+        pending.put(targetPath, stagedPath);
+        executor.execute(() -> {
+            try {
+                moveToTarget(stagedPath, Path.of(targetPath));
+                pending.remove(targetPath);
+                onWritten.run();
+            } catch (IOException | RuntimeException e) {
+                /* файл остаётся в промежуточном каталоге и продолжает читаться оттуда */
+                LOGGER.error(e.getMessage(), e);
+            }
+        });
+    }
+
+    public Optional<Path> findPending(String targetPath) {
+        return Optional.ofNullable(pending.get(targetPath));
+    }
+
+    public void moveToTarget(Path stagedPath, Path targetPath) throws IOException {
+        try (var channel = FileChannel.open(stagedPath, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.createDirectories(targetPath.getParent());
+        Files.move(stagedPath, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -1,6 +1,8 @@
 package ru.job4j.dreamjob.service;
 
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.PageDto;
+import ru.job4j.dreamjob.dto.CandidateSummaryDto;
 import ru.job4j.dreamjob.model.Candidate;
 
 import java.util.Collection;
@@ -10,11 +12,17 @@ public interface CandidateService {
 
     Candidate save(Candidate candidate, FileDto image);
 
+    Collection<Candidate> saveAll(Collection<Candidate> candidates);
+
     boolean deleteById(int id);
 
     boolean update(Candidate candidate, FileDto image);
 
+    Collection<Candidate> updateAll(Collection<Candidate> candidates);
+
     Optional<Candidate> findById(int id);
 
     Collection<Candidate> findAll();
+
+    PageDto<CandidateSummaryDto> findPage(int afterId, int limit);
 }
@@ -0,0 +1,37 @@
+package ru.job4j.dreamjob.service;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/* форматы пакетного импорта и выгрузки: CSV со строкой заголовка или по одному JSON-объекту в строке */
+public enum DataFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    DataFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static Optional<DataFormat> fromName(String name) {
+        return Arrays.stream(values())
+                .filter(format -> format.name().equalsIgnoreCase(name))
+                .findFirst();
+    }
+
+    public static Optional<DataFormat> fromMediaType(MediaType contentType) {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        return Arrays.stream(values())
+                .filter(format -> MediaType.parseMediaType(format.mediaType).includes(contentType))
+                .findFirst();
+    }
+}
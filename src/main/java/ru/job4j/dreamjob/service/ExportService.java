@@ -0,0 +1,10 @@
+package ru.job4j.dreamjob.service;
+
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    void exportVacancies(OutputStream output, DataFormat format);
+
+    void exportCandidates(OutputStream output, DataFormat format);
+}
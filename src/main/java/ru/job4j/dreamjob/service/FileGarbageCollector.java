@@ -0,0 +1,80 @@
+package ru.job4j.dreamjob.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.dto.FileCleanupReportDto;
+
+import java.util.function.ToLongFunction;
+
+/*
+ * Периодически удаляет файлы и строки files, оставшиеся без ссылок после сбоев между сохранением строки и файла.
+ * Следующий запуск планируется после завершения предыдущего, поэтому обходы не пересекаются.
+ * Итоги последнего обхода публикуются датчиками; до первого обхода они равны NaN.
+ */
+@Component
+@ConditionalOnProperty(name = "file.gc.enabled", havingValue = "true")
+public class FileGarbageCollector implements MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileGarbageCollector.class);
+
+    private final FileService fileService;
+
+    private final int batchSize;
+
+    private final int maxEntriesPerSecond;
+
+    private final long minAgeMillis;
+
+    private volatile FileCleanupReportDto lastReport;
+
+    public FileGarbageCollector(FileService fileService,
+                                @Value("${file.gc.batch-size:500}") int batchSize,
+                                @Value("${file.gc.max-entries-per-second:1000}") int maxEntriesPerSecond,
+                                @Value("${file.gc.min-age:3600000}") long minAgeMillis) {
+        this.fileService = fileService;
+        this.batchSize = batchSize;
+        this.maxEntriesPerSecond = maxEntriesPerSecond;
+        this.minAgeMillis = minAgeMillis;
+    }
+
+    @Scheduled(initialDelayString = "${file.gc.initial-delay:60000}", fixedDelayString = "${file.gc.interval:3600000}")
+    public void collect() {
+        try {
+            var reportOptional = fileService.collectGarbage(batchSize, maxEntriesPerSecond, minAgeMillis);
+            if (reportOptional.isEmpty()) {
+                LOGGER.info("File garbage collection skipped, layout migration is running");
+                return;
+            }
+            lastReport = reportOptional.get();
+            LOGGER.info("File garbage collection finished: {}", lastReport);
+        } catch (RuntimeException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registerLastReportGauge(registry, "dreamjob.file.gc.last.rows.deleted", "Unreferenced file rows deleted by the last collection", null, FileCleanupReportDto::getRowsDeleted);
+        registerLastReportGauge(registry, "dreamjob.file.gc.last.blobs.scanned", "Stored files scanned by the last collection", null, FileCleanupReportDto::getBlobsScanned);
+        registerLastReportGauge(registry, "dreamjob.file.gc.last.blobs.deleted", "Stored files without rows deleted by the last collection", null, FileCleanupReportDto::getBlobsDeleted);
+        registerLastReportGauge(registry, "dreamjob.file.gc.last.freed", "Bytes freed by the last collection", "bytes", FileCleanupReportDto::getBytesFreed);
+        registerLastReportGauge(registry, "dreamjob.file.gc.last.duration", "Duration of the last collection", "milliseconds", FileCleanupReportDto::getDurationMillis);
+    }
+
+    private void registerLastReportGauge(MeterRegistry registry, String name, String description, String baseUnit, ToLongFunction<FileCleanupReportDto> value) {
+        Gauge.builder(name, this, collector -> {
+                    var report = collector.lastReport;
+                    return report == null ? Double.NaN : value.applyAsLong(report);
+                })
+                .description(description)
+                .baseUnit(baseUnit)
+                .register(registry);
+    }
+}
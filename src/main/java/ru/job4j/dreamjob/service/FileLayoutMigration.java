@@ -0,0 +1,43 @@
+package ru.job4j.dreamjob.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "file.layout-migration.enabled", havingValue = "true")
+public class FileLayoutMigration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileLayoutMigration.class);
+
+    private final FileService fileService;
+
+    private final int batchSize;
+
+    public FileLayoutMigration(FileService fileService,
+                               @Value("${file.layout-migration.batch-size:500}") int batchSize) {
+        this.fileService = fileService;
+        this.batchSize = batchSize;
+    }
+
+    /* миграция запускается в фоне, чтобы не задерживать старт приложения */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        var thread = new Thread(this::migrate, "file-layout-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void migrate() {
+        try {
+            var migrated = fileService.migrateLayout(batchSize);
+            LOGGER.info("File layout migration finished, {} files moved", migrated);
+        } catch (RuntimeException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+}
@@ -1,15 +1,28 @@
 package ru.job4j.dreamjob.service;
 
+import ru.job4j.dreamjob.dto.FileCleanupReportDto;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.FileResourceDto;
 import ru.job4j.dreamjob.model.File;
 
+import java.io.InputStream;
 import java.util.Optional;
 
 public interface FileService {
 
     File save(FileDto fileDto);
 
+    File save(String name, InputStream content);
+
     Optional<FileDto> getFileById(int id);
 
+    Optional<FileResourceDto> getFileResourceById(int id);
+
+    Optional<FileResourceDto> getFileResourceById(int id, ThumbnailSize size);
+
     void deleteById(int id);
+
+    int migrateLayout(int batchSize);
+
+    Optional<FileCleanupReportDto> collectGarbage(int batchSize, int maxEntriesPerSecond, long minAgeMillis);
 }
@@ -0,0 +1,12 @@
+package ru.job4j.dreamjob.service;
+
+import ru.job4j.dreamjob.dto.ImportReportDto;
+
+import java.io.InputStream;
+
+public interface ImportService {
+
+    ImportReportDto importVacancies(InputStream input, DataFormat format);
+
+    ImportReportDto importCandidates(InputStream input, DataFormat format);
+}
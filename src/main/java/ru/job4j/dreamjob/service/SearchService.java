@@ -0,0 +1,9 @@
+package ru.job4j.dreamjob.service;
+
+import ru.job4j.dreamjob.dto.SearchResultDto;
+import ru.job4j.dreamjob.search.SearchType;
+
+public interface SearchService {
+
+    SearchResultDto search(SearchType type, String query, int page, int size);
+}
@@ -2,10 +2,17 @@ package ru.job4j.dreamjob.service;
 
 import net.jcip.annotations.ThreadSafe;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.job4j.dreamjob.cache.EntityCache;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.PageDto;
+import ru.job4j.dreamjob.dto.CandidateSummaryDto;
 import ru.job4j.dreamjob.model.Candidate;
 import ru.job4j.dreamjob.repository.CandidateRepository;
+import ru.job4j.dreamjob.search.SearchIndex;
+import ru.job4j.dreamjob.search.SearchType;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Optional;
 
@@ -17,15 +24,37 @@ public class SimpleCandidateService implements CandidateService {
 
     private final FileService fileService;
 
-    private SimpleCandidateService(CandidateRepository sql2oCandidateRepository, FileService fileService) {
+    private final SearchIndex searchIndex;
+
+    private final EntityCache<Candidate> candidateCache;
+
+    SimpleCandidateService(CandidateRepository sql2oCandidateRepository, FileService fileService, SearchIndex searchIndex,
+                           EntityCache<Candidate> candidateCache) {
         this.candidateRepository = sql2oCandidateRepository;
         this.fileService = fileService;
+        this.searchIndex = searchIndex;
+        this.candidateCache = candidateCache;
     }
 
     @Override
+    @Transactional
     public Candidate save(Candidate candidate, FileDto image) {
         saveNewFile(candidate, image);
-        return candidateRepository.save(candidate);
+        var savedCandidate = candidateRepository.save(candidate);
+        index(savedCandidate);
+        return savedCandidate;
+    }
+
+    @Override
+    @Transactional
+    public Collection<Candidate> saveAll(Collection<Candidate> candidates) {
+        var saved = candidateRepository.saveAll(candidates);
+        saved.forEach(this::index);
+        return saved;
+    }
+
+    private void index(Candidate candidate) {
+        searchIndex.put(SearchType.CANDIDATE, candidate.getId(), candidate.getName(), candidate.getDescription());
     }
 
     private void saveNewFile(Candidate candidate, FileDto image) {
@@ -34,37 +63,74 @@ public class SimpleCandidateService implements CandidateService {
     }
 
     @Override
+    @Transactional
     public boolean deleteById(int id) {
-        var candidateOptional = findById(id);
+        /* идентификатор файла читается из базы, а не из кеша */
+        var candidateOptional = candidateRepository.findById(id);
         if (candidateOptional.isEmpty()) {
             return false;
         }
         var isUpdated = candidateRepository.deleteById(id);
+        candidateCache.invalidate(id);
+        searchIndex.remove(SearchType.CANDIDATE, id);
         fileService.deleteById(candidateOptional.get().getFileId());
         return isUpdated;
     }
 
     @Override
+    @Transactional
     public boolean update(Candidate candidate, FileDto image) {
-        var isNewFileEmpty = image.getContent().length == 0;
+        var isNewFileEmpty = image.isEmpty();
         if (isNewFileEmpty) {
-            return candidateRepository.update(candidate);
+            return updateIndexed(candidate);
         }
         /* если передан новый не пустой файл, то старый удаляем, а новый сохраняем */
         var oldFileId = candidate.getFileId();
         saveNewFile(candidate, image);
-        var isUpdated = candidateRepository.update(candidate);
+        var isUpdated = updateIndexed(candidate);
         fileService.deleteById(oldFileId);
         return isUpdated;
     }
 
+    @Override
+    @Transactional
+    public Collection<Candidate> updateAll(Collection<Candidate> candidates) {
+        var updated = candidateRepository.updateAll(candidates);
+        for (var candidate : updated) {
+            candidateCache.invalidate(candidate.getId());
+            index(candidate);
+        }
+        return updated;
+    }
+
+    private boolean updateIndexed(Candidate candidate) {
+        var isUpdated = candidateRepository.update(candidate);
+        if (isUpdated) {
+            candidateCache.invalidate(candidate.getId());
+            index(candidate);
+        }
+        return isUpdated;
+    }
+
     @Override
     public Optional<Candidate> findById(int id) {
-        return candidateRepository.findById(id);
+        return candidateCache.get(id, candidateRepository::findById);
     }
 
     @Override
     public Collection<Candidate> findAll() {
         return candidateRepository.findAll();
     }
+
+    /* запрашивается на одну запись больше, чтобы узнать, есть ли следующая страница */
+    @Override
+    public PageDto<CandidateSummaryDto> findPage(int afterId, int limit) {
+        var items = new ArrayList<>(candidateRepository.findPage(afterId, limit + 1));
+        var hasNext = items.size() > limit;
+        if (hasNext) {
+            items.remove(limit);
+        }
+        var nextAfterId = items.isEmpty() ? afterId : items.get(items.size() - 1).getId();
+        return new PageDto<>(items, afterId, nextAfterId, hasNext);
+    }
 }
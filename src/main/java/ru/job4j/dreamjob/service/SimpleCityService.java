@@ -1,22 +1,53 @@
 package ru.job4j.dreamjob.service;
 
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import ru.job4j.dreamjob.model.City;
 import ru.job4j.dreamjob.repository.CityRepository;
 
+import javax.annotation.PostConstruct;
 import java.util.Collection;
+import java.util.List;
 
+/*
+ * Справочник городов почти не меняется, поэтому читается из неизменяемого снимка без обращения к базе.
+ * Снимок загружается при старте и заменяется целиком по расписанию; City неизменяем, поэтому снимок отдаётся без копирования.
+ * Если перечитать не удалось, остаётся прежний снимок.
+ */
 @Service
+@ThreadSafe
 public class SimpleCityService implements CityService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimpleCityService.class);
+
     private final CityRepository cityRepository;
 
+    private volatile List<City> cities = List.of();
+
     public SimpleCityService(CityRepository sql2oCityRepository) {
         this.cityRepository = sql2oCityRepository;
     }
 
+    @PostConstruct
+    void refresh() {
+        cities = List.copyOf(cityRepository.findAll());
+    }
+
+    @Scheduled(initialDelayString = "${city.cache.refresh-interval:600000}",
+            fixedDelayString = "${city.cache.refresh-interval:600000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
     @Override
     public Collection<City> findAll() {
-        return cityRepository.findAll();
+        return cities;
     }
 }
@@ -0,0 +1,113 @@
+package ru.job4j.dreamjob.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.stereotype.Service;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.CandidateRepository;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/*
+ * Выгрузка пишет строки в поток по мере чтения курсором scanAll, в памяти держится только буфер записи.
+ * Колонки CSV и поля JSON совпадают с форматом импорта, выгрузку можно загрузить обратно.
+ */
+@Service
+@ThreadSafe
+public class SimpleExportService implements ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final List<String> VACANCY_COLUMNS =
+            List.of("id", "title", "description", "creation_date", "visible", "city_id", "file_id");
+
+    private static final List<String> CANDIDATE_COLUMNS =
+            List.of("id", "name", "description", "creation_date", "city_id", "file_id");
+
+    private final VacancyRepository vacancyRepository;
+
+    private final CandidateRepository candidateRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public SimpleExportService(VacancyRepository sql2oVacancyRepository,
+                               CandidateRepository sql2oCandidateRepository,
+                               ObjectMapper objectMapper) {
+        this.vacancyRepository = sql2oVacancyRepository;
+        this.candidateRepository = sql2oCandidateRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void exportVacancies(OutputStream output, DataFormat format) {
+        export(output, format, VACANCY_COLUMNS, vacancyRepository::scanAll,
+                vacancy -> Arrays.asList(vacancy.getId(), vacancy.getTitle(), vacancy.getDescription(),
+                        vacancy.getCreationDate(), vacancy.getVisible(), vacancy.getCityId(), vacancy.getFileId()));
+    }
+
+    @Override
+    public void exportCandidates(OutputStream output, DataFormat format) {
+        export(output, format, CANDIDATE_COLUMNS, candidateRepository::scanAll,
+                candidate -> Arrays.asList(candidate.getId(), candidate.getName(), candidate.getDescription(),
+                        candidate.getCreationDate(), candidate.getCityId(), candidate.getFileId()));
+    }
+
+    private <T> void export(OutputStream output, DataFormat format, List<String> columns,
+                            Consumer<Consumer<T>> scan, Function<T, List<Object>> toCsvValues) {
+        var writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            if (format == DataFormat.CSV) {
+                writeCsvLine(writer, columns);
+            }
+            scan.accept(row -> {
+                try {
+                    if (format == DataFormat.CSV) {
+                        writeCsvLine(writer, toCsvValues.apply(row));
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(toCsvField(values.get(i)));
+        }
+        writer.write('\n');
+    }
+
+    /* поле в кавычках, если в нём есть разделитель, кавычка или перенос строки; кавычки внутри удваиваются */
+    static String toCsvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        var text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
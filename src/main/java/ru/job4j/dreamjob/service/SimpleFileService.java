@@ -1,29 +1,103 @@
 package ru.job4j.dreamjob.service;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import ru.job4j.dreamjob.cache.FileCache;
+import ru.job4j.dreamjob.configuration.FileStorageProperties;
+import ru.job4j.dreamjob.dto.FileCleanupReportDto;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.FileResourceDto;
+import ru.job4j.dreamjob.metrics.FileMetrics;
 import ru.job4j.dreamjob.model.File;
 import ru.job4j.dreamjob.repository.FileRepository;
 
+import javax.annotation.PostConstruct;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
 
 @Service
 public class SimpleFileService implements FileService {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimpleFileService.class);
+
+    private static final String CHECKSUM_ALGORITHM = "SHA-256";
+
+    private static final String TEMP_DIRECTORY = "tmp";
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final int SHARD_NAME_LENGTH = 2;
+
+    private static final String STAGED_NAME_SEPARATOR = ".";
+
     private final FileRepository fileRepository;
 
     private final String storageDirectory;
 
+    private final boolean contentAddressed;
+
+    private final int directoryLevels;
+
+    private final FileCache fileCache;
+
+    private final ThumbnailService thumbnailService;
+
+    private final AsyncFileWriter fileWriter;
+
+    private final FileMetrics fileMetrics;
+
+    /* удаление, миграция и сборка мусора одного и того же пути не должны пересекаться, иначе блоб может пропасть из-под ссылки */
+    private final Object[] pathLocks = new Object[LOCK_STRIPES];
+
+    /* миграция создаёт жёсткие ссылки со старым временем изменения, поэтому сборка мусора не должна идти одновременно с ней */
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
+
     public SimpleFileService(FileRepository sql2oFileRepository,
-                             @Value("${file.directory}") String storageDirectory) {
+                             FileStorageProperties storage,
+                             FileCache fileCache,
+                             ThumbnailService thumbnailService,
+                             AsyncFileWriter fileWriter,
+                             FileMetrics fileMetrics) {
         this.fileRepository = sql2oFileRepository;
-        this.storageDirectory = storageDirectory;
-        createStorageDirectory(storageDirectory);
+        this.storageDirectory = storage.getDirectory();
+        this.contentAddressed = storage.isContentAddressed();
+        this.directoryLevels = storage.getDirectoryLevels();
+        this.fileCache = fileCache;
+        this.thumbnailService = thumbnailService;
+        this.fileWriter = fileWriter;
+        this.fileMetrics = fileMetrics;
+        for (int i = 0; i < pathLocks.length; i++) {
+            pathLocks[i] = new Object();
+        }
+        createStorageDirectory(this.storageDirectory);
+        createStorageDirectory(this.storageDirectory + java.io.File.separator + TEMP_DIRECTORY);
     }
 
     private void createStorageDirectory(String path) {
@@ -36,47 +110,303 @@ public class SimpleFileService implements FileService {
 
     @Override
     public File save(FileDto fileDto) {
-        var path = getNewFilePath(fileDto.getName());
-        writeFileBytes(path, fileDto.getContent());
-        return fileRepository.save(new File(fileDto.getName(), path));
+        try (var content = fileDto.getInputStream()) {
+            return save(fileDto.getName(), content);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
-    private String getNewFilePath(String sourceName) {
-        return storageDirectory + java.io.File.separator + UUID.randomUUID() + sourceName;
+    /*
+     * Содержимое сначала пишется во временный файл: в режиме content-addressed итоговый путь
+     * зависит от хеша, который известен только после чтения всего потока.
+     * Затем файл остаётся в промежуточном каталоге под именем <UUID>.<число уровней>.<итоговое имя>, а строка files
+     * сохраняется в текущей транзакции. В хранилище файл переносит AsyncFileWriter после фиксации,
+     * при откате промежуточный файл удаляется.
+     */
+    @Override
+    public File save(String name, InputStream content) {
+        var tempPath = getNewTempFilePath();
+        var digest = createDigest();
+        var size = writeFileContent(tempPath, new DigestInputStream(content, digest));
+        fileMetrics.recordWritten(size);
+        var checksum = HexFormat.of().formatHex(digest.digest());
+        var file = new File(name, getLayoutPath(contentAddressed ? checksum : UUID.randomUUID() + name));
+        file.setSize(size);
+        file.setChecksum(checksum);
+        var stagedPath = tempPath + STAGED_NAME_SEPARATOR + directoryLevels + STAGED_NAME_SEPARATOR
+                + Path.of(file.getPath()).getFileName();
+        moveFile(tempPath, stagedPath);
+        File savedFile;
+        try {
+            savedFile = contentAddressed ? saveOrAddReference(file) : fileRepository.save(file);
+        } catch (RuntimeException e) {
+            deleteFile(stagedPath);
+            throw e;
+        }
+        if (savedFile != file) {
+            deleteFile(stagedPath);
+            return savedFile;
+        }
+        afterTransaction(
+                () -> fileWriter.write(Path.of(stagedPath), savedFile.getPath(), () -> thumbnailService.generate(savedFile)),
+                () -> deleteFile(stagedPath)
+        );
+        return savedFile;
+    }
+
+    /*
+     * Одинаковое содержимое хранится одной строкой files. Уникальность пути обеспечивает база, а не блокировка в JVM:
+     * строка другой транзакции видна только после её фиксации, а блокировка снималась бы раньше.
+     * Если между вставкой и увеличением ссылок последнюю ссылку удалили, попытка повторяется.
+     */
+    private File saveOrAddReference(File file) {
+        while (true) {
+            if (fileRepository.saveIfAbsent(file)) {
+                return file;
+            }
+            if (fileRepository.addReference(file.getPath())) {
+                return fileRepository.findByPath(file.getPath()).orElseThrow();
+            }
+        }
+    }
+
+    /* действия с файлами на диске выполняются только после фиксации транзакции, в которой изменились строки files */
+    private void afterTransaction(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    onCommit.run();
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
     }
 
-    private void writeFileBytes(String path, byte[] content) {
+    /*
+     * Файлы, оставшиеся в промежуточном каталоге после остановки, переносятся в хранилище,
+     * если на них ссылается строка files. Итоговый путь строится по числу уровней из имени файла,
+     * а не по текущей настройке: она могла измениться между остановкой и запуском.
+     * Файл удаляется, только если строки с этим путём точно нет; имя без числа уровней
+     * (записанное до его появления) проверяется по текущей раскладке и без строки остаётся на месте.
+     */
+    @PostConstruct
+    public void recoverStagedFiles() {
+        try (var stagedFiles = Files.list(Path.of(storageDirectory, TEMP_DIRECTORY))) {
+            for (var stagedPath : (Iterable<Path>) stagedFiles::iterator) {
+                recoverStagedFile(stagedPath);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void recoverStagedFile(Path stagedPath) throws IOException {
+        var stagedName = stagedPath.getFileName().toString();
+        var parts = stagedName.split(Pattern.quote(STAGED_NAME_SEPARATOR), 3);
+        if (parts.length == 3 && parts[1].matches("\\d+")) {
+            var targetPath = getLayoutPath(parts[2], Integer.parseInt(parts[1]));
+            if (fileRepository.findByPath(targetPath).isPresent()) {
+                fileWriter.moveToTarget(stagedPath, Path.of(targetPath));
+            } else {
+                Files.deleteIfExists(stagedPath);
+            }
+            return;
+        }
+        var separatorIndex = stagedName.indexOf(STAGED_NAME_SEPARATOR);
+        if (separatorIndex < 0) {
+            /* временный файл, который не успели перенести в промежуточный каталог: строки на него ещё нет */
+            Files.deleteIfExists(stagedPath);
+            return;
+        }
+        var targetPath = getLayoutPath(stagedName.substring(separatorIndex + 1));
+        if (fileRepository.findByPath(targetPath).isPresent()) {
+            fileWriter.moveToTarget(stagedPath, Path.of(targetPath));
+        } else {
+            LOGGER.warn("Staged file {} has no layout levels and no row at {}, left in place", stagedPath, targetPath);
+        }
+    }
+
+    private MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String getNewTempFilePath() {
+        return storageDirectory + java.io.File.separator + TEMP_DIRECTORY + java.io.File.separator + UUID.randomUUID();
+    }
+
+    /*
+     * Файлы раскладываются по directoryLevels уровням подкаталогов по первым символам имени: ab/cd/abcd...
+     * Имя начинается с UUID или хеша содержимого, поэтому файлы распределяются по каталогам равномерно.
+     */
+    private String getLayoutPath(String fileName) {
+        return getLayoutPath(fileName, directoryLevels);
+    }
+
+    private String getLayoutPath(String fileName, int directoryLevels) {
+        var path = new StringBuilder(storageDirectory);
+        if (fileName.length() >= directoryLevels * SHARD_NAME_LENGTH) {
+            for (int level = 0; level < directoryLevels; level++) {
+                path.append(java.io.File.separator)
+                        .append(fileName, level * SHARD_NAME_LENGTH, (level + 1) * SHARD_NAME_LENGTH);
+            }
+        }
+        return path.append(java.io.File.separator).append(fileName).toString();
+    }
+
+    private Object getPathLock(String path) {
+        return pathLocks[Math.floorMod(path.hashCode(), pathLocks.length)];
+    }
+
+    private void moveFile(String source, String target) {
+        try {
+            var targetPath = Path.of(target);
+            Files.createDirectories(targetPath.getParent());
+            Files.move(Path.of(source), targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteFile(source);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /* содержимое копируется на диск через буфер фиксированного размера, не загружаясь в память целиком */
+    private long writeFileContent(String path, InputStream content) {
         try {
-            Files.write(Path.of(path), content);
+            return Files.copy(content, Path.of(path));
         } catch (IOException e) {
+            deleteFile(path);
             throw new RuntimeException(e);
         }
     }
 
     @Override
     public Optional<FileDto> getFileById(int id) {
+        return getFileResourceById(id).map(this::toFileDto);
+    }
+
+    private FileDto toFileDto(FileResourceDto fileResource) {
+        try (var content = fileResource.getContent().getInputStream()) {
+            return new FileDto(fileResource.getName(), content.readAllBytes());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /* небольшие часто запрашиваемые файлы отдаются из кеша без обращения к базе и диску */
+    @Override
+    public Optional<FileResourceDto> getFileResourceById(int id) {
+        var cacheKey = String.valueOf(id);
+        var cachedOptional = fileCache.get(cacheKey);
+        if (cachedOptional.isPresent()) {
+            return cachedOptional;
+        }
         var fileOptional = fileRepository.findById(id);
         if (fileOptional.isEmpty()) {
             return Optional.empty();
         }
-        var content = readFileAsBytes(fileOptional.get().getPath());
-        return Optional.of(new FileDto(fileOptional.get().getName(), content));
+        var file = fileOptional.get();
+        return Optional.of(loadFileResource(cacheKey, file.getName(), resolvePath(file.getPath()), getETag(file)));
     }
 
-    private byte[] readFileAsBytes(String path) {
+    /* пока уменьшенная копия не создана, отдаётся оригинал */
+    @Override
+    public Optional<FileResourceDto> getFileResourceById(int id, ThumbnailSize size) {
+        var cacheKey = getThumbnailCacheKey(id, size);
+        var cachedOptional = fileCache.get(cacheKey);
+        if (cachedOptional.isPresent()) {
+            return cachedOptional;
+        }
+        var fileOptional = fileRepository.findById(id);
+        if (fileOptional.isEmpty()) {
+            return Optional.empty();
+        }
+        var file = fileOptional.get();
+        var thumbnailOptional = thumbnailService.findThumbnail(file, size);
+        if (thumbnailOptional.isEmpty()) {
+            return getFileResourceById(id);
+        }
+        var thumbnailName = thumbnailOptional.get().getFileName().toString();
+        return Optional.of(loadFileResource(cacheKey, thumbnailName, thumbnailOptional.get(),
+                getETag(file) + "-" + size.getSuffix()));
+    }
+
+    /* файл, ещё не перенесённый из промежуточного каталога, читается оттуда */
+    private Path resolvePath(String path) {
+        return fileWriter.findPending(path).orElse(Path.of(path));
+    }
+
+    private String getThumbnailCacheKey(int id, ThumbnailSize size) {
+        return id + ":" + size.getSuffix();
+    }
+
+    private FileResourceDto loadFileResource(String cacheKey, String name, Path path, String eTag) {
         try {
-            return Files.readAllBytes(Path.of(path));
+            var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            var lastModified = attributes.lastModifiedTime().toMillis();
+            if (!fileCache.isCacheable(attributes.size())) {
+                fileMetrics.recordRead(attributes.size());
+                return new FileResourceDto(name, new FileSystemResource(path), attributes.size(), eTag, lastModified);
+            }
+            var content = Files.readAllBytes(path);
+            fileMetrics.recordRead(content.length);
+            var fileResource = new FileResourceDto(name, new ByteArrayResource(content), content.length, eTag, lastModified);
+            fileCache.put(cacheKey, fileResource);
+            return fileResource;
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    private void invalidateCache(int id) {
+        fileCache.invalidate(String.valueOf(id));
+        for (var size : ThumbnailSize.values()) {
+            fileCache.invalidate(getThumbnailCacheKey(id, size));
+        }
+    }
+
+    /* путь файла содержит UUID или хеш содержимого и после сохранения не меняется, поэтому его хеш подходит как ETag */
+    private String getETag(File file) {
+        return DigestUtils.md5DigestAsHex(file.getPath().getBytes(StandardCharsets.UTF_8));
+    }
+
     @Override
     public void deleteById(int id) {
         var fileOptional = fileRepository.findById(id);
-        if (fileOptional.isPresent()) {
-            deleteFile(fileOptional.get().getPath());
-            fileRepository.deleteById(id);
+        if (fileOptional.isEmpty()) {
+            return;
+        }
+        invalidateCache(id);
+        var path = fileOptional.get().getPath();
+        synchronized (getPathLock(path)) {
+            /* одинаковое содержимое в режиме content-addressed хранится один раз, блоб удаляем вместе с последней ссылкой */
+            if (fileRepository.removeReference(id)) {
+                afterTransaction(() -> deleteUnreferencedBlob(id, path), () -> { });
+            }
+        }
+    }
+
+    /*
+     * Выполняется после фиксации, поэтому блокировка пути берётся заново. За это время загрузка того же
+     * содержимого могла сохранить новую строку с этим путём: тогда блоб уже принадлежит ей и не удаляется.
+     */
+    private void deleteUnreferencedBlob(int id, String path) {
+        invalidateCache(id);
+        synchronized (getPathLock(path)) {
+            if (fileRepository.findByPath(path).isPresent()) {
+                return;
+            }
+            deleteFile(path);
+            thumbnailService.deleteThumbnails(path);
         }
     }
 
@@ -87,4 +417,234 @@ public class SimpleFileService implements FileService {
             throw new RuntimeException(e);
         }
     }
+
+    /*
+     * Переносит файлы, сохранённые в прежней раскладке, по текущей. Файл сначала связывается с новым путём,
+     * затем пачкой обновляются строки files, и только после этого удаляется старый путь,
+     * поэтому чтение во время миграции всегда находит файл.
+     */
+    @Override
+    public int migrateLayout(int batchSize) {
+        maintenanceLock.lock();
+        try {
+            return relocateFiles(batchSize);
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    private int relocateFiles(int batchSize) {
+        var migrated = 0;
+        var afterId = 0;
+        Collection<File> page;
+        do {
+            page = fileRepository.findPage(afterId, batchSize);
+            var relocated = new ArrayList<File>();
+            var oldPaths = new ArrayList<String>();
+            for (var file : page) {
+                afterId = file.getId();
+                var newPath = getLayoutPath(Path.of(file.getPath()).getFileName().toString());
+                if (!newPath.equals(file.getPath()) && linkFile(file.getPath(), newPath)) {
+                    oldPaths.add(file.getPath());
+                    file.setPath(newPath);
+                    relocated.add(file);
+                }
+            }
+            fileRepository.updatePaths(relocated);
+            relocated.forEach(file -> invalidateCache(file.getId()));
+            oldPaths.forEach(this::deleteFile);
+            oldPaths.forEach(thumbnailService::deleteThumbnails);
+            migrated += relocated.size();
+        } while (page.size() == batchSize);
+        return migrated;
+    }
+
+    private boolean linkFile(String source, String target) {
+        var sourcePath = Path.of(source);
+        var targetPath = Path.of(target);
+        synchronized (getPathLock(source)) {
+            try {
+                if (Files.exists(targetPath)) {
+                    /* файл уже перенесён прерванной миграцией, осталось обновить строку */
+                    return true;
+                }
+                if (!Files.exists(sourcePath)) {
+                    return false;
+                }
+                Files.createDirectories(targetPath.getParent());
+                try {
+                    Files.createLink(targetPath, sourcePath);
+                } catch (UnsupportedOperationException e) {
+                    Files.copy(sourcePath, targetPath);
+                }
+                return true;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /*
+     * Удаляет строки files, на которые не ссылаются ни вакансии, ни кандидаты, а затем файлы хранилища без строки files.
+     * Обе таблицы обходятся пачками по batchSize, скорость ограничена maxEntriesPerSecond записями в секунду.
+     * Файлы моложе minAgeMillis и промежуточный каталог не трогаются: их сохранение может быть ещё не завершено.
+     * Если идёт миграция раскладки, обход пропускается.
+     */
+    @Override
+    public Optional<FileCleanupReportDto> collectGarbage(int batchSize, int maxEntriesPerSecond, long minAgeMillis) {
+        if (!maintenanceLock.tryLock()) {
+            return Optional.empty();
+        }
+        try {
+            var progress = new CleanupProgress(maxEntriesPerSecond, System.currentTimeMillis() - minAgeMillis);
+            deleteUnreferencedRows(batchSize, progress);
+            deleteUnreferencedBlobs(batchSize, progress);
+            return Optional.of(progress.toReport());
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    private void deleteUnreferencedRows(int batchSize, CleanupProgress progress) {
+        var afterId = 0;
+        Collection<File> page;
+        do {
+            page = fileRepository.findUnreferenced(afterId, batchSize);
+            for (var file : page) {
+                afterId = file.getId();
+                synchronized (getPathLock(file.getPath())) {
+                    if (fileRepository.deleteUnreferenced(file.getId())) {
+                        invalidateCache(file.getId());
+                        progress.rowsDeleted++;
+                        progress.bytesFreed += deleteFileAndThumbnails(file.getPath());
+                    }
+                }
+            }
+            progress.throttle(page.size());
+        } while (page.size() == batchSize);
+    }
+
+    private void deleteUnreferencedBlobs(int batchSize, CleanupProgress progress) {
+        var tempDirectory = Path.of(storageDirectory, TEMP_DIRECTORY);
+        var batch = new ArrayList<Path>();
+        try {
+            Files.walkFileTree(Path.of(storageDirectory), new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                    return directory.equals(tempDirectory) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path path, BasicFileAttributes attributes) {
+                    if (attributes.isRegularFile() && attributes.lastModifiedTime().toMillis() < progress.minModified) {
+                        batch.add(path);
+                    }
+                    if (batch.size() == batchSize) {
+                        deleteUnreferencedBlobs(batch, progress);
+                        batch.clear();
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                /* файл мог быть удалён или перемещён во время обхода */
+                @Override
+                public FileVisitResult visitFileFailed(Path path, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        deleteUnreferencedBlobs(batch, progress);
+    }
+
+    /* уменьшенная копия принадлежит оригиналу и удаляется, только если нет строки files оригинала */
+    private void deleteUnreferencedBlobs(List<Path> paths, CleanupProgress progress) {
+        var originalPaths = new ArrayList<String>(paths.size());
+        for (var path : paths) {
+            originalPaths.add(thumbnailService.findOriginalPath(path.toString()).orElse(path.toString()));
+        }
+        var existingPaths = new HashSet<>(fileRepository.findExistingPaths(new HashSet<>(originalPaths)));
+        for (int i = 0; i < paths.size(); i++) {
+            var originalPath = originalPaths.get(i);
+            if (existingPaths.contains(originalPath) || fileWriter.findPending(originalPath).isPresent()) {
+                continue;
+            }
+            synchronized (getPathLock(originalPath)) {
+                if (fileRepository.findByPath(originalPath).isEmpty()) {
+                    var size = deleteExistingFile(paths.get(i));
+                    if (size >= 0) {
+                        progress.blobsDeleted++;
+                        progress.bytesFreed += size;
+                    }
+                }
+            }
+        }
+        progress.blobsScanned += paths.size();
+        progress.throttle(paths.size());
+    }
+
+    private long deleteFileAndThumbnails(String path) {
+        var freed = Math.max(0, deleteExistingFile(Path.of(path)));
+        thumbnailService.deleteThumbnails(path);
+        return freed;
+    }
+
+    /* возвращает размер удалённого файла или -1, если файла уже нет */
+    private long deleteExistingFile(Path path) {
+        try {
+            var size = Files.size(path);
+            Files.delete(path);
+            return size;
+        } catch (NoSuchFileException e) {
+            return -1;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static final class CleanupProgress {
+
+        private final int maxEntriesPerSecond;
+
+        private final long minModified;
+
+        private final long startNanos = System.nanoTime();
+
+        private long processed;
+
+        private long rowsDeleted;
+
+        private long blobsScanned;
+
+        private long blobsDeleted;
+
+        private long bytesFreed;
+
+        private CleanupProgress(int maxEntriesPerSecond, long minModified) {
+            this.maxEntriesPerSecond = maxEntriesPerSecond;
+            this.minModified = minModified;
+        }
+
+        /* после каждой пачки выдерживается пауза, если обход опережает заданную скорость */
+        private void throttle(int count) {
+            processed += count;
+            var expectedNanos = TimeUnit.SECONDS.toNanos(processed) / maxEntriesPerSecond;
+            var sleepNanos = expectedNanos - (System.nanoTime() - startNanos);
+            if (sleepNanos <= 0) {
+                return;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+
+        private FileCleanupReportDto toReport() {
+            var durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            return new FileCleanupReportDto(rowsDeleted, blobsScanned, blobsDeleted, bytesFreed, durationMillis);
+        }
+    }
 }
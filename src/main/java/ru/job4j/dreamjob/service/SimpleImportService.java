@@ -0,0 +1,304 @@
+package ru.job4j.dreamjob.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.job4j.dreamjob.dto.ImportReportDto;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.Vacancy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/*
+ * Импорт читает поток построчно и копит не больше batchSize записей. Каждая порция сохраняется в своей транзакции
+ * пакетными saveAll/updateAll: записи без id вставляются, с id - обновляются.
+ * Ошибочная строка или порция, которую отклонила база, попадает в отчёт, импорт продолжается со следующей.
+ * Картинки не импортируются, file_id новых записей остаётся пустым.
+ */
+@Service
+@ThreadSafe
+public class SimpleImportService implements ImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final VacancyService vacancyService;
+
+    private final CandidateService candidateService;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    public SimpleImportService(VacancyService vacancyService,
+                               CandidateService candidateService,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${import.batch-size:500}") int batchSize) {
+        this.vacancyService = vacancyService;
+        this.candidateService = candidateService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ImportReportDto importVacancies(InputStream input, DataFormat format) {
+        var target = new ImportTarget<>(this::vacancyFromJson, this::toVacancy,
+                vacancy -> isPresent(vacancy.getTitle()) && isPresent(vacancy.getDescription()) && vacancy.getCityId() > 0,
+                Vacancy::getId, vacancyService::saveAll, vacancyService::updateAll);
+        return importRows(input, format, target);
+    }
+
+    @Override
+    public ImportReportDto importCandidates(InputStream input, DataFormat format) {
+        var target = new ImportTarget<>(this::candidateFromJson, this::toCandidate,
+                candidate -> isPresent(candidate.getName()) && isPresent(candidate.getDescription()) && candidate.getCityId() > 0,
+                Candidate::getId, candidateService::saveAll, candidateService::updateAll);
+        return importRows(input, format, target);
+    }
+
+    private <T> ImportReportDto importRows(InputStream input, DataFormat format, ImportTarget<T> target) {
+        var progress = new ImportProgress();
+        var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        try {
+            var header = format == DataFormat.CSV ? readHeader(reader) : List.<String>of();
+            var batch = new ArrayList<T>(batchSize);
+            var firstLine = format == DataFormat.CSV ? 2 : 1;
+            var lineNumber = firstLine - 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    var row = format == DataFormat.CSV
+                            ? target.fromCsv.apply(toMap(header, parseCsvLine(line)))
+                            : target.fromJson.apply(line);
+                    if (!target.isValid.test(row)) {
+                        progress.fail("строка " + lineNumber + ": не заполнены обязательные поля");
+                        continue;
+                    }
+                    batch.add(row);
+                } catch (RuntimeException e) {
+                    progress.fail("строка " + lineNumber + ": " + e.getMessage());
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    flush(batch, target, progress, firstLine, lineNumber);
+                    firstLine = lineNumber + 1;
+                }
+            }
+            flush(batch, target, progress, firstLine, lineNumber);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return progress.toReport();
+    }
+
+    private <T> void flush(List<T> batch, ImportTarget<T> target, ImportProgress progress, int fromLine, int toLine) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        var created = new ArrayList<T>();
+        var changed = new ArrayList<T>();
+        for (var row : batch) {
+            if (target.id.applyAsInt(row) > 0) {
+                changed.add(row);
+            } else {
+                created.add(row);
+            }
+        }
+        try {
+            var updated = transactionTemplate.execute(status -> {
+                target.saveAll.apply(created);
+                return target.updateAll.apply(changed).size();
+            });
+            progress.created += created.size();
+            progress.updated += updated;
+            progress.failed += changed.size() - updated;
+        } catch (RuntimeException e) {
+            progress.failed += batch.size();
+            progress.addError("строки " + fromLine + "-" + toLine + ": " + e.getMessage());
+        }
+        batch.clear();
+    }
+
+    /* ссылка на файл из входных данных не принимается: без увеличения ref_count файл удалился бы вместе с чужой записью */
+    private Vacancy vacancyFromJson(String line) {
+        var vacancy = readJson(line, Vacancy.class);
+        vacancy.setFileId(0);
+        return vacancy;
+    }
+
+    private Candidate candidateFromJson(String line) {
+        var candidate = readJson(line, Candidate.class);
+        candidate.setFileId(0);
+        return candidate;
+    }
+
+    private <T> T readJson(String line, Class<T> type) {
+        try {
+            return objectMapper.readValue(line, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage(), e);
+        }
+    }
+
+    private Vacancy toVacancy(Map<String, String> values) {
+        var vacancy = new Vacancy();
+        vacancy.setId(toInt(values.get("id")));
+        vacancy.setTitle(values.get("title"));
+        vacancy.setDescription(values.get("description"));
+        vacancy.setCreationDate(toDateTime(values.get("creation_date")));
+        vacancy.setVisible(Boolean.parseBoolean(values.get("visible")));
+        vacancy.setCityId(toInt(values.get("city_id")));
+        return vacancy;
+    }
+
+    private Candidate toCandidate(Map<String, String> values) {
+        var candidate = new Candidate();
+        candidate.setId(toInt(values.get("id")));
+        candidate.setName(values.get("name"));
+        candidate.setDescription(values.get("description"));
+        candidate.setCreationDate(toDateTime(values.get("creation_date")));
+        candidate.setCityId(toInt(values.get("city_id")));
+        return candidate;
+    }
+
+    private static List<String> readHeader(BufferedReader reader) throws IOException {
+        var header = reader.readLine();
+        if (header == null) {
+            return List.of();
+        }
+        return parseCsvLine(header.strip()).stream().map(String::strip).toList();
+    }
+
+    private static Map<String, String> toMap(List<String> header, List<String> values) {
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException("ожидалось полей: " + header.size() + ", получено: " + values.size());
+        }
+        var row = new HashMap<String, String>();
+        for (int i = 0; i < header.size(); i++) {
+            row.put(header.get(i), values.get(i));
+        }
+        return row;
+    }
+
+    /* поля разделяются запятой, в кавычках допускаются запятые и удвоенные кавычки; перенос строки внутри поля не поддерживается */
+    static List<String> parseCsvLine(String line) {
+        var values = new ArrayList<String>();
+        var value = new StringBuilder();
+        var isQuoted = false;
+        var position = 0;
+        while (position < line.length()) {
+            var character = line.charAt(position++);
+            if (isQuoted && character == '"') {
+                if (position < line.length() && line.charAt(position) == '"') {
+                    value.append('"');
+                    position++;
+                } else {
+                    isQuoted = false;
+                }
+            } else if (isQuoted) {
+                value.append(character);
+            } else if (character == '"') {
+                isQuoted = true;
+            } else if (character == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(character);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static int toInt(String value) {
+        return value == null || value.isBlank() ? 0 : Integer.parseInt(value.strip());
+    }
+
+    private static LocalDateTime toDateTime(String value) {
+        return value == null || value.isBlank() ? LocalDateTime.now() : LocalDateTime.parse(value.strip());
+    }
+
+    private static boolean isPresent(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static final class ImportTarget<T> {
+
+        private final Function<String, T> fromJson;
+
+        private final Function<Map<String, String>, T> fromCsv;
+
+        private final Predicate<T> isValid;
+
+        private final ToIntFunction<T> id;
+
+        private final UnaryOperator<Collection<T>> saveAll;
+
+        private final UnaryOperator<Collection<T>> updateAll;
+
+        private ImportTarget(Function<String, T> fromJson, Function<Map<String, String>, T> fromCsv, Predicate<T> isValid,
+                             ToIntFunction<T> id, UnaryOperator<Collection<T>> saveAll,
+                             UnaryOperator<Collection<T>> updateAll) {
+            this.fromJson = fromJson;
+            this.fromCsv = fromCsv;
+            this.isValid = isValid;
+            this.id = id;
+            this.saveAll = saveAll;
+            this.updateAll = updateAll;
+        }
+    }
+
+    private static final class ImportProgress {
+
+        private final long startedAt = System.currentTimeMillis();
+
+        private final List<String> errors = new ArrayList<>();
+
+        private long created;
+
+        private long updated;
+
+        private long failed;
+
+        private void fail(String error) {
+            failed++;
+            addError(error);
+        }
+
+        private void addError(String error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        private ImportReportDto toReport() {
+            return new ImportReportDto(created, updated, failed, List.copyOf(errors),
+                    System.currentTimeMillis() - startedAt);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.stereotype.Service;
+import ru.job4j.dreamjob.dto.SearchResultDto;
+import ru.job4j.dreamjob.search.SearchIndex;
+import ru.job4j.dreamjob.search.SearchType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@ThreadSafe
+public class SimpleSearchService implements SearchService {
+
+    private final SearchIndex searchIndex;
+
+    public SimpleSearchService(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    /* запрашивается на одну запись больше, чтобы узнать, есть ли следующая страница */
+    @Override
+    public SearchResultDto search(SearchType type, String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            return new SearchResultDto(List.of(), page, false);
+        }
+        var hits = new ArrayList<>(searchIndex.search(type, query.strip(), page * size, size + 1));
+        var hasNext = hits.size() > size;
+        if (hasNext) {
+            hits.remove(size);
+        }
+        return new SearchResultDto(hits, page, hasNext);
+    }
+}
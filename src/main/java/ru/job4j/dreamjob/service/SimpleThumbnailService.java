@@ -0,0 +1,209 @@
+package ru.job4j.dreamjob.service;
+
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import ru.job4j.dreamjob.model.File;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Уменьшенные копии изображений создаются в фоне на пуле с ограниченной очередью и хранятся рядом с оригиналом:
+ * <путь оригинала>.<размер>.jpg. Пока копия не готова, отдаётся оригинал.
+ * Размеры читаются из заголовка до декодирования: файл больше maxPixels не раскладывается в память.
+ * Оригиналы, которые не удалось прочитать, запоминаются и повторно не разбираются, для них всегда отдаётся оригинал.
+ */
+@Service
+@ThreadSafe
+public class SimpleThumbnailService implements ThumbnailService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimpleThumbnailService.class);
+
+    private static final String FORMAT = "jpg";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final Set<String> READABLE_TYPES = Set.copyOf(Arrays.asList(ImageIO.getReaderMIMETypes()));
+
+    private final ThreadPoolExecutor executor;
+
+    private final long maxPixels;
+
+    private final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    public SimpleThumbnailService(@Value("${file.thumbnail.threads:2}") int threads,
+                                  @Value("${file.thumbnail.queue-capacity:100}") int queueCapacity,
+                                  @Value("${file.thumbnail.max-pixels:40000000}") long maxPixels) {
+        this.maxPixels = maxPixels;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    var thread = new Thread(runnable, "thumbnail-generator");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void generate(File file) {
+        if (!isImage(file) || failed.contains(file.getPath()) || !inProgress.add(file.getPath())) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    writeThumbnails(Path.of(file.getPath()));
+                } finally {
+                    inProgress.remove(file.getPath());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            /* очередь заполнена: копия будет создана при следующем запросе */
+            inProgress.remove(file.getPath());
+        }
+    }
+
+    @Override
+    public Optional<Path> findThumbnail(File file, ThumbnailSize size) {
+        var thumbnailPath = getThumbnailPath(file.getPath(), size);
+        if (Files.exists(thumbnailPath)) {
+            return Optional.of(thumbnailPath);
+        }
+        generate(file);
+        return Optional.empty();
+    }
+
+    @Override
+    public void deleteThumbnails(String originalPath) {
+        failed.remove(originalPath);
+        for (var size : ThumbnailSize.values()) {
+            try {
+                Files.deleteIfExists(getThumbnailPath(originalPath, size));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /* недописанная копия (.tmp) тоже относится к оригиналу */
+    @Override
+    public Optional<String> findOriginalPath(String thumbnailPath) {
+        for (var size : ThumbnailSize.values()) {
+            var suffix = "." + size.getSuffix() + "." + FORMAT;
+            for (var ending : new String[] {suffix, suffix + TEMP_SUFFIX}) {
+                if (thumbnailPath.endsWith(ending)) {
+                    return Optional.of(thumbnailPath.substring(0, thumbnailPath.length() - ending.length()));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /* например, SVG - изображение, но ImageIO его не читает */
+    private boolean isImage(File file) {
+        return MediaTypeFactory.getMediaType(file.getName())
+                .filter(mediaType -> READABLE_TYPES.contains(mediaType.getType() + "/" + mediaType.getSubtype()))
+                .isPresent();
+    }
+
+    boolean isFailed(String originalPath) {
+        return failed.contains(originalPath);
+    }
+
+    private Path getThumbnailPath(String originalPath, ThumbnailSize size) {
+        return Path.of(originalPath + "." + size.getSuffix() + "." + FORMAT);
+    }
+
+    private void writeThumbnails(Path originalPath) {
+        try {
+            if (!Files.exists(originalPath)) {
+                return;
+            }
+            var original = readImage(originalPath);
+            if (original.isEmpty()) {
+                failed.add(originalPath.toString());
+                return;
+            }
+            for (var size : ThumbnailSize.values()) {
+                var thumbnailPath = getThumbnailPath(originalPath.toString(), size);
+                if (Files.exists(thumbnailPath)) {
+                    continue;
+                }
+                var tempPath = Path.of(thumbnailPath + TEMP_SUFFIX);
+                ImageIO.write(scale(original.get(), size.getMaxDimension()), FORMAT, tempPath.toFile());
+                Files.move(tempPath, thumbnailPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error(e.getMessage(), e);
+        }
+    }
+
+    private Optional<BufferedImage> readImage(Path path) throws IOException {
+        try (var input = ImageIO.createImageInputStream(path.toFile())) {
+            var readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                LOGGER.warn("Thumbnail skipped, unsupported image format: {}", path);
+                return Optional.empty();
+            }
+            var reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                var pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    LOGGER.warn("Thumbnail skipped, image has {} pixels, limit is {}: {}", pixels, maxPixels, path);
+                    return Optional.empty();
+                }
+                return Optional.of(reader.read(0));
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Thumbnail skipped, image cannot be decoded: {}", path, e);
+                return Optional.empty();
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /* изображение вписывается в квадрат maxDimension с сохранением пропорций, увеличение не выполняется */
+    private BufferedImage scale(BufferedImage original, int maxDimension) {
+        var ratio = Math.min(1.0, (double) maxDimension / Math.max(original.getWidth(), original.getHeight()));
+        var width = Math.max(1, (int) Math.round(original.getWidth() * ratio));
+        var height = Math.max(1, (int) Math.round(original.getHeight() * ratio));
+        var thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        var graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            /* у jpg нет прозрачности, поэтому прозрачные области заливаются белым */
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(original, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+}
@@ -2,10 +2,19 @@ package ru.job4j.dreamjob.service;
 
 import net.jcip.annotations.ThreadSafe;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.job4j.dreamjob.cache.EntityCache;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.PageDto;
+import ru.job4j.dreamjob.dto.VacancyFilterDto;
+import ru.job4j.dreamjob.dto.VacancySummaryDto;
 import ru.job4j.dreamjob.model.Vacancy;
 import ru.job4j.dreamjob.repository.VacancyRepository;
+import ru.job4j.dreamjob.search.SearchIndex;
+import ru.job4j.dreamjob.search.SearchType;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Optional;
 
@@ -17,15 +26,37 @@ public class SimpleVacancyService implements VacancyService {
 
     private final FileService fileService;
 
-    private SimpleVacancyService(VacancyRepository sql2oVacancyRepository, FileService fileService) {
+    private final SearchIndex searchIndex;
+
+    private final EntityCache<Vacancy> vacancyCache;
+
+    SimpleVacancyService(VacancyRepository sql2oVacancyRepository, FileService fileService, SearchIndex searchIndex,
+                         EntityCache<Vacancy> vacancyCache) {
         this.vacancyRepository = sql2oVacancyRepository;
         this.fileService = fileService;
+        this.searchIndex = searchIndex;
+        this.vacancyCache = vacancyCache;
     }
 
     @Override
+    @Transactional
     public Vacancy save(Vacancy vacancy, FileDto image) {
         saveNewFile(vacancy, image);
-        return vacancyRepository.save(vacancy);
+        var savedVacancy = vacancyRepository.save(vacancy);
+        index(savedVacancy);
+        return savedVacancy;
+    }
+
+    @Override
+    @Transactional
+    public Collection<Vacancy> saveAll(Collection<Vacancy> vacancies) {
+        var saved = vacancyRepository.saveAll(vacancies);
+        saved.forEach(this::index);
+        return saved;
+    }
+
+    private void index(Vacancy vacancy) {
+        searchIndex.put(SearchType.VACANCY, vacancy.getId(), vacancy.getTitle(), vacancy.getDescription());
     }
 
     private void saveNewFile(Vacancy vacancy, FileDto image) {
@@ -34,37 +65,77 @@ public class SimpleVacancyService implements VacancyService {
     }
 
     @Override
+    @Transactional
     public boolean deleteById(int id) {
-        var fileOptional = findById(id);
+        /* идентификатор файла читается из базы, а не из кеша */
+        var fileOptional = vacancyRepository.findById(id);
         if (fileOptional.isEmpty()) {
             return false;
         }
         var isUpdated = vacancyRepository.deleteById(id);
+        vacancyCache.invalidate(id);
+        searchIndex.remove(SearchType.VACANCY, id);
         fileService.deleteById(fileOptional.get().getFileId());
         return isUpdated;
     }
 
     @Override
+    @Transactional
     public boolean update(Vacancy vacancy, FileDto image) {
-        var isNewFileEmpty = image.getContent().length == 0;
+        var isNewFileEmpty = image.isEmpty();
         if (isNewFileEmpty) {
-            return vacancyRepository.update(vacancy);
+            return updateIndexed(vacancy);
         }
         /* если передан новый не пустой файл, то старый удаляем, а новый сохраняем */
         var oldFileId = vacancy.getFileId();
         saveNewFile(vacancy, image);
-        var isUpdated = vacancyRepository.update(vacancy);
+        var isUpdated = updateIndexed(vacancy);
         fileService.deleteById(oldFileId);
         return isUpdated;
     }
 
+    @Override
+    @Transactional
+    public Collection<Vacancy> updateAll(Collection<Vacancy> vacancies) {
+        var updated = vacancyRepository.updateAll(vacancies);
+        for (var vacancy : updated) {
+            vacancyCache.invalidate(vacancy.getId());
+            index(vacancy);
+        }
+        return updated;
+    }
+
+    private boolean updateIndexed(Vacancy vacancy) {
+        var isUpdated = vacancyRepository.update(vacancy);
+        if (isUpdated) {
+            vacancyCache.invalidate(vacancy.getId());
+            index(vacancy);
+        }
+        return isUpdated;
+    }
+
     @Override
     public Optional<Vacancy> findById(int id) {
-        return vacancyRepository.findById(id);
+        return vacancyCache.get(id, vacancyRepository::findById);
     }
 
     @Override
     public Collection<Vacancy> findAll() {
         return vacancyRepository.findAll();
     }
-}
\ No newline at end of file
+
+    /* запрашивается на одну запись больше, чтобы узнать, есть ли следующая страница */
+    @Override
+    public PageDto<VacancySummaryDto> findPage(VacancyFilterDto filter, LocalDateTime afterDate, int afterId, int limit) {
+        var items = new ArrayList<>(vacancyRepository.findPage(filter, afterDate, afterId, limit + 1));
+        var hasNext = items.size() > limit;
+        if (hasNext) {
+            items.remove(limit);
+        }
+        if (items.isEmpty()) {
+            return new PageDto<>(items, afterId, afterId, afterDate, false);
+        }
+        var last = items.get(items.size() - 1);
+        return new PageDto<>(items, afterId, last.getId(), last.getCreationDate(), hasNext);
+    }
+}
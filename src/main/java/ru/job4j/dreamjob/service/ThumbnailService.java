@@ -0,0 +1,17 @@
+package ru.job4j.dreamjob.service;
+
+import ru.job4j.dreamjob.model.File;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface ThumbnailService {
+
+    void generate(File file);
+
+    Optional<Path> findThumbnail(File file, ThumbnailSize size);
+
+    void deleteThumbnails(String originalPath);
+
+    Optional<String> findOriginalPath(String thumbnailPath);
+}
@@ -0,0 +1,30 @@
+package ru.job4j.dreamjob.service;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum ThumbnailSize {
+
+    SMALL(160),
+    MEDIUM(480);
+
+    private final int maxDimension;
+
+    ThumbnailSize(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    public String getSuffix() {
+        return name().toLowerCase();
+    }
+
+    public static Optional<ThumbnailSize> fromSuffix(String suffix) {
+        return Arrays.stream(values())
+                .filter(size -> size.getSuffix().equalsIgnoreCase(suffix))
+                .findFirst();
+    }
+}
@@ -1,8 +1,12 @@
 package ru.job4j.dreamjob.service;
 
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.PageDto;
+import ru.job4j.dreamjob.dto.VacancyFilterDto;
+import ru.job4j.dreamjob.dto.VacancySummaryDto;
 import ru.job4j.dreamjob.model.Vacancy;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Optional;
 
@@ -10,11 +14,17 @@ public interface VacancyService {
 
     Vacancy save(Vacancy vacancy, FileDto image);
 
+    Collection<Vacancy> saveAll(Collection<Vacancy> vacancies);
+
     boolean deleteById(int id);
 
     boolean update(Vacancy vacancy, FileDto image);
 
+    Collection<Vacancy> updateAll(Collection<Vacancy> vacancies);
+
     Optional<Vacancy> findById(int id);
 
     Collection<Vacancy> findAll();
+
+    PageDto<VacancySummaryDto> findPage(VacancyFilterDto filter, LocalDateTime afterDate, int afterId, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package ru.job4j.dreamjob.tracing;
+
+import net.jcip.annotations.NotThreadSafe;
+import ru.job4j.dreamjob.dto.RequestTraceDto;
+import ru.job4j.dreamjob.dto.SpanDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+ * Трасса одного запроса, живёт в потоке запроса. Участки вложены: собственное время участка - его длительность
+ * без вложенных участков, поэтому время фильтра не включает контроллер, а время сервиса - запросы репозитория.
+ */
+@NotThreadSafe
+final class ActiveTrace {
+
+    private final String id;
+
+    private final String method;
+
+    private final String uri;
+
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private final long startNanos = System.nanoTime();
+
+    private final int maxSpans;
+
+    private final List<SpanRecord> spans = new ArrayList<>();
+
+    private final Deque<SpanRecord> open = new ArrayDeque<>();
+
+    ActiveTrace(String id, String method, String uri, int maxSpans) {
+        this.id = id;
+        this.method = method;
+        this.uri = uri;
+        this.maxSpans = maxSpans;
+    }
+
+    /* у запросов с тысячами обращений к базе лишние участки не записываются, чтобы трасса не росла без предела */
+    Span start(String name, String layer) {
+        if (spans.size() >= maxSpans) {
+            return Span.NOOP;
+        }
+        var span = new SpanRecord(name, layer, open.size(), System.nanoTime());
+        spans.add(span);
+        open.push(span);
+        return new Span(this, spans.size() - 1);
+    }
+
+    void close(int index) {
+        var span = spans.get(index);
+        if (span.endNanos != 0) {
+            return;
+        }
+        span.endNanos = System.nanoTime();
+        open.remove(span);
+        var parent = open.peek();
+        if (parent != null) {
+            parent.childNanos += span.endNanos - span.startNanos;
+        }
+    }
+
+    /* собственное время закрытых участков по слоям и общее время запроса на текущий момент */
+    String toServerTiming() {
+        var layers = new LinkedHashMap<String, Long>();
+        for (var span : spans) {
+            if (span.endNanos != 0) {
+                layers.merge(span.layer, span.selfNanos(), Long::sum);
+            }
+        }
+        layers.put("total", System.nanoTime() - startNanos);
+        return layers.entrySet().stream()
+                .map(layer -> layer.getKey() + ";dur=" + String.format(Locale.ROOT, "%.2f", toMillis(layer.getValue())))
+                .collect(Collectors.joining(", "));
+    }
+
+    RequestTraceDto finish(int status) {
+        var endNanos = System.nanoTime();
+        while (!open.isEmpty()) {
+            close(spans.indexOf(open.peek()));
+        }
+        var spanDtos = spans.stream()
+                .map(span -> new SpanDto(span.name, span.layer, span.depth, toMillis(span.startNanos - startNanos),
+                        toMillis(span.endNanos - span.startNanos), toMillis(span.selfNanos())))
+                .toList();
+        return new RequestTraceDto(id, method, uri, status, startedAt, toMillis(endNanos - startNanos), spanDtos);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static final class SpanRecord {
+
+        private final String name;
+
+        private final String layer;
+
+        private final int depth;
+
+        private final long startNanos;
+
+        private long endNanos;
+
+        private long childNanos;
+
+        private SpanRecord(String name, String layer, int depth, long startNanos) {
+            this.name = name;
+            this.layer = layer;
+            this.depth = depth;
+            this.startNanos = startNanos;
+        }
+
+        private long selfNanos() {
+            return endNanos == 0 ? 0 : endNanos - startNanos - childNanos;
+        }
+    }
+}
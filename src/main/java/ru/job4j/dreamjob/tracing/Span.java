@@ -0,0 +1,23 @@
+package ru.job4j.dreamjob.tracing;
+
+/* закрывается в том же потоке, в котором открыт; вне трассируемого запроса ничего не делает */
+public final class Span implements AutoCloseable {
+
+    static final Span NOOP = new Span(null, -1);
+
+    private final ActiveTrace trace;
+
+    private final int index;
+
+    Span(ActiveTrace trace, int index) {
+        this.trace = trace;
+        this.index = index;
+    }
+
+    @Override
+    public void close() {
+        if (trace != null) {
+            trace.close(index);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package ru.job4j.dreamjob.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.jcip.annotations.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.dto.RequestTraceDto;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Пишет трассы медленнее minDuration в файл NDJSON, по одной трассе в строке. Запись идёт в отдельном потоке:
+ * поток запроса только кладёт трассу в очередь, а при переполненной очереди трасса отбрасывается.
+ * Пустой tracing.export.file отключает выгрузку. Число отброшенных трасс публикуется счётчиком.
+ */
+@Component
+@ThreadSafe
+public class TraceExporter implements MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TraceExporter.class);
+
+    private static final int QUEUE_CAPACITY = 1000;
+
+    private final ObjectMapper objectMapper;
+
+    private final Path file;
+
+    private final double minDurationMillis;
+
+    private final BlockingQueue<RequestTraceDto> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final Thread writer = new Thread(this::write, "trace-exporter");
+
+    public TraceExporter(ObjectMapper objectMapper,
+                         @Value("${tracing.export.file:}") String file,
+                         @Value("${tracing.export.min-duration:100ms}") Duration minDuration) {
+        this.objectMapper = objectMapper;
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.minDurationMillis = minDuration.toNanos() / 1_000_000d;
+        writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (file != null) {
+            writer.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        writer.interrupt();
+        writer.join();
+    }
+
+    public void export(RequestTraceDto trace) {
+        if (file == null || trace.getDurationMillis() < minDurationMillis) {
+            return;
+        }
+        if (!queue.offer(trace)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("dreamjob.tracing.export.dropped", dropped, AtomicLong::get)
+                .description("Traces dropped because the export queue was full")
+                .register(registry);
+    }
+
+    private void write() {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            LOGGER.error("Cannot create trace export directory for {}", file, e);
+            return;
+        }
+        var batch = new ArrayList<RequestTraceDto>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            queue.drainTo(batch);
+            try (var output = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writeLines(output, batch);
+            } catch (IOException e) {
+                LOGGER.error("Cannot export traces to {}", file, e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void writeLines(BufferedWriter output, Iterable<RequestTraceDto> traces) throws IOException {
+        for (var trace : traces) {
+            output.write(objectMapper.writeValueAsString(trace));
+            output.newLine();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ru.job4j.dreamjob.tracing;
+
+import net.jcip.annotations.ThreadSafe;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.dto.RequestTraceDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Трассировка запросов внутри процесса: TracingFilter открывает трассу в потоке запроса, фильтры, контроллер,
+ * отрисовка, сервисы и репозитории добавляют в неё участки. Завершённые трассы хранятся в кольцевом буфере
+ * последних запросов и передаются TraceExporter.
+ */
+@Component
+@ThreadSafe
+public class Tracer {
+
+    public static final String FILTER = "filter";
+
+    public static final String CONTROLLER = "controller";
+
+    public static final String RENDER = "render";
+
+    public static final String SERVICE = "service";
+
+    public static final String REPOSITORY = "repository";
+
+    private final boolean enabled;
+
+    private final int maxSpans;
+
+    private final TraceExporter exporter;
+
+    private final ThreadLocal<ActiveTrace> current = new ThreadLocal<>();
+
+    private final AtomicReferenceArray<RequestTraceDto> buffer;
+
+    private final AtomicLong finished = new AtomicLong();
+
+    public Tracer(@Value("${tracing.enabled:true}") boolean enabled,
+                  @Value("${tracing.buffer-size:1000}") int bufferSize,
+                  @Value("${tracing.max-spans:500}") int maxSpans,
+                  TraceExporter exporter) {
+        this.enabled = enabled;
+        this.maxSpans = maxSpans;
+        this.exporter = exporter;
+        this.buffer = new AtomicReferenceArray<>(Math.max(bufferSize, 1));
+    }
+
+    /* повторный вход в том же потоке (forward, страница ошибки) продолжает уже открытую трассу */
+    public boolean begin(String method, String uri) {
+        if (!enabled || current.get() != null) {
+            return false;
+        }
+        current.set(new ActiveTrace(Long.toHexString(ThreadLocalRandom.current().nextLong()), method, uri, maxSpans));
+        return true;
+    }
+
+    public RequestTraceDto end(int status) {
+        var trace = current.get();
+        current.remove();
+        var result = trace.finish(status);
+        buffer.set((int) (finished.getAndIncrement() % buffer.length()), result);
+        exporter.export(result);
+        return result;
+    }
+
+    public Span start(String name, String layer) {
+        var trace = current.get();
+        return trace == null ? Span.NOOP : trace.start(name, layer);
+    }
+
+    public String getServerTiming() {
+        var trace = current.get();
+        return trace == null ? "" : trace.toServerTiming();
+    }
+
+    public List<RequestTraceDto> findSlowest(int limit) {
+        var traces = new ArrayList<RequestTraceDto>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            var trace = buffer.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces.stream()
+                .sorted(Comparator.comparingDouble(RequestTraceDto::getDurationMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+}
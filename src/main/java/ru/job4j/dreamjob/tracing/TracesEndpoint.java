@@ -0,0 +1,28 @@
+package ru.job4j.dreamjob.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.dto.RequestTraceDto;
+
+import java.util.List;
+
+/* /actuator/traces?limit=N - самые долгие запросы из кольцевого буфера с разбивкой по участкам */
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final Tracer tracer;
+
+    public TracesEndpoint(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @ReadOperation
+    public List<RequestTraceDto> traces(@Nullable Integer limit) {
+        return tracer.findSlowest(limit == null ? DEFAULT_LIMIT : limit);
+    }
+}
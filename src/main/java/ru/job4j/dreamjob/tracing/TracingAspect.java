@@ -0,0 +1,38 @@
+package ru.job4j.dreamjob.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/* те же точки, что и у CallMetricsAspect: вызовы сервисов и запросы Sql2o-репозиториев */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class TracingAspect {
+
+    private final Tracer tracer;
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("ru.job4j.dreamjob.metrics.CallMetricsAspect.services()")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(Tracer.SERVICE, joinPoint);
+    }
+
+    @Around("ru.job4j.dreamjob.metrics.CallMetricsAspect.repositories()")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(Tracer.REPOSITORY, joinPoint);
+    }
+
+    private Object trace(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        var name = joinPoint.getTarget().getClass().getSimpleName() + "." + joinPoint.getSignature().getName();
+        try (var span = tracer.start(name, layer)) {
+            return joinPoint.proceed();
+        }
+    }
+}
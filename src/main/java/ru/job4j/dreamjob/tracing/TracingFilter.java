@@ -0,0 +1,45 @@
+package ru.job4j.dreamjob.tracing;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/*
+ * Стоит перед остальными фильтрами приложения и охватывает весь запрос.
+ * Server-Timing ставится ещё раз после отрисовки, если ответ не успел уйти клиенту,
+ * иначе остаётся заголовок из TracingInterceptor без времени отрисовки.
+ */
+@Component
+@Order(0)
+public class TracingFilter extends HttpFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        if (!tracer.begin(request.getMethod(), request.getRequestURI())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (!response.isCommitted()) {
+                response.setHeader(SERVER_TIMING, tracer.getServerTiming());
+            }
+            tracer.end(response.getStatus());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ru.job4j.dreamjob.tracing;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/* участок контроллера - от preHandle до postHandle, участок отрисовки шаблона - от postHandle до afterCompletion */
+public class TracingInterceptor implements HandlerInterceptor {
+
+    private static final String CONTROLLER_SPAN = TracingInterceptor.class.getName() + ".controller";
+
+    private static final String RENDER_SPAN = TracingInterceptor.class.getName() + ".render";
+
+    private final Tracer tracer;
+
+    public TracingInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(CONTROLLER_SPAN, tracer.start(getName(handler), Tracer.CONTROLLER));
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        closeSpan(request, CONTROLLER_SPAN);
+        response.setHeader(TracingFilter.SERVER_TIMING, tracer.getServerTiming());
+        if (modelAndView != null && modelAndView.getViewName() != null) {
+            request.setAttribute(RENDER_SPAN, tracer.start(modelAndView.getViewName(), Tracer.RENDER));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        closeSpan(request, RENDER_SPAN);
+        closeSpan(request, CONTROLLER_SPAN);
+    }
+
+    private void closeSpan(HttpServletRequest request, String attribute) {
+        if (request.getAttribute(attribute) instanceof Span span) {
+            span.close();
+            request.removeAttribute(attribute);
+        }
+    }
+
+    private static String getName(Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return handler.getClass().getSimpleName();
+    }
+}
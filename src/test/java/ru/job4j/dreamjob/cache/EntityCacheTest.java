@@ -0,0 +1,145 @@
+package ru.job4j.dreamjob.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.configuration.EntityCacheConfiguration;
+import ru.job4j.dreamjob.model.Vacancy;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EntityCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final IntFunction<Optional<String>> loader = id -> {
+        loads.incrementAndGet();
+        return Optional.of("entity" + id);
+    };
+
+    @Test
+    public void whenGetTwiceThenLoadedOnceAndHitCounted() {
+        var cache = new EntityCache<String>(true, 10, 1000);
+
+        var first = cache.get(1, loader);
+        var second = cache.get(1, loader);
+
+        assertThat(first).contains("entity1");
+        assertThat(second).contains("entity1");
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getHitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void whenTtlExpiredThenLoadedAgain() {
+        var now = new AtomicLong();
+        var cache = new EntityCache<String>(true, 10, 1000, now::get);
+
+        cache.get(1, loader);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1001));
+        cache.get(1, loader);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenSizeExceededThenLeastRecentlyUsedEvicted() {
+        var cache = new EntityCache<String>(true, 2, 1000);
+
+        cache.get(1, loader);
+        cache.get(2, loader);
+        cache.get(1, loader);
+        cache.get(3, loader);
+        cache.get(1, loader);
+        cache.get(2, loader);
+
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(cache.getEntryCount()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenInvalidateOrDisabledThenLoadedAgain() {
+        var cache = new EntityCache<String>(true, 10, 1000);
+        var disabledCache = new EntityCache<String>(false, 10, 1000);
+
+        cache.get(1, loader);
+        cache.invalidate(1);
+        cache.get(1, loader);
+        disabledCache.get(1, loader);
+        disabledCache.get(1, loader);
+
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(disabledCache.getEntryCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void whenEmptyOrFailedThenNotCached() {
+        var cache = new EntityCache<String>(true, 10, 1000);
+
+        var missing = cache.get(1, id -> Optional.empty());
+
+        assertThat(missing).isEmpty();
+        assertThatThrownBy(() -> cache.get(2, id -> {
+            throw new IllegalStateException("database is down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.getEntryCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void whenConcurrentMissesThenLoadedOnce() throws Exception {
+        var cache = new EntityCache<String>(true, 10, 1000);
+        var release = new CountDownLatch(1);
+        IntFunction<Optional<String>> slowLoader = id -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader.apply(id);
+        };
+        var pool = Executors.newFixedThreadPool(4);
+        try {
+            var results = new ArrayList<Future<Optional<String>>>();
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> cache.get(1, slowLoader)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (var result : results) {
+                assertThat(result.get()).contains("entity1");
+            }
+            assertThat(loads.get()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void whenCacheCreatedByConfigurationThenMetricsTaggedWithCacheName() {
+        var registry = new SimpleMeterRegistry();
+        var cache = new EntityCacheConfiguration().vacancyCache(true, 1, 1000, new LoopbackInvalidationBus(), registry);
+        IntFunction<Optional<Vacancy>> vacancyLoader = id -> Optional.of(new Vacancy());
+
+        cache.get(1, vacancyLoader);
+        cache.get(1, vacancyLoader);
+        cache.get(2, vacancyLoader);
+
+        assertThat(registry.get("dreamjob.entity.cache.hits").tag("cache", "vacancies").functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("dreamjob.entity.cache.misses").tag("cache", "vacancies").functionCounter().count()).isEqualTo(2.0);
+        assertThat(registry.get("dreamjob.entity.cache.evictions").tag("cache", "vacancies").functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("dreamjob.entity.cache.hit.ratio").tag("cache", "vacancies").gauge().value()).isEqualTo(1.0 / 3);
+        assertThat(registry.get("dreamjob.entity.cache.size").tag("cache", "vacancies").gauge().value()).isEqualTo(1.0);
+    }
+}
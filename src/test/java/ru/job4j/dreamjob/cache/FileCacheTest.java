@@ -0,0 +1,85 @@
+package ru.job4j.dreamjob.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import ru.job4j.dreamjob.dto.FileResourceDto;
+
+import static java.util.Optional.empty;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+class FileCacheTest {
+
+    private FileResourceDto file(int size) {
+        return new FileResourceDto("name", new ByteArrayResource(new byte[size]), size, "etag", 0);
+    }
+
+    @Test
+    public void whenPutThenGetSameAndCountHit() {
+        var fileCache = new FileCache(10, 5);
+        var file = file(3);
+
+        fileCache.put("1", file);
+
+        assertThat(fileCache.get("1").get()).isEqualTo(file);
+        assertThat(fileCache.get("2")).isEqualTo(empty());
+        assertThat(fileCache.getHitCount()).isEqualTo(1);
+        assertThat(fileCache.getMissCount()).isEqualTo(1);
+        assertThat(fileCache.getTotalBytes()).isEqualTo(3);
+    }
+
+    @Test
+    public void whenEntryTooLargeThenNotCached() {
+        var fileCache = new FileCache(10, 5);
+
+        fileCache.put("1", file(6));
+
+        assertThat(fileCache.get("1")).isEqualTo(empty());
+        assertThat(fileCache.getTotalBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void whenBudgetExceededThenLeastRecentlyUsedEvicted() {
+        var fileCache = new FileCache(10, 5);
+        fileCache.put("1", file(4));
+        fileCache.put("2", file(4));
+        fileCache.get("1");
+
+        fileCache.put("3", file(4));
+
+        assertThat(fileCache.get("1")).isNotEqualTo(empty());
+        assertThat(fileCache.get("2")).isEqualTo(empty());
+        assertThat(fileCache.get("3")).isNotEqualTo(empty());
+        assertThat(fileCache.getEvictionCount()).isEqualTo(1);
+        assertThat(fileCache.getTotalBytes()).isEqualTo(8);
+    }
+
+    @Test
+    public void whenInvalidateThenNotFoundAndBytesReleased() {
+        var fileCache = new FileCache(10, 5);
+        fileCache.put("1", file(4));
+
+        fileCache.invalidate("1");
+
+        assertThat(fileCache.get("1")).isEqualTo(empty());
+        assertThat(fileCache.getTotalBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void whenBoundToRegistryThenCountersPublished() {
+        var fileCache = new FileCache(10, 5);
+        var registry = new SimpleMeterRegistry();
+        fileCache.bindTo(registry);
+        fileCache.put("1", file(4));
+        fileCache.put("2", file(4));
+        fileCache.put("3", file(4));
+
+        fileCache.get("3");
+        fileCache.get("1");
+
+        assertThat(registry.get("dreamjob.file.cache.hits").functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("dreamjob.file.cache.misses").functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("dreamjob.file.cache.evictions").functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("dreamjob.file.cache.size").gauge().value()).isEqualTo(8.0);
+    }
+}
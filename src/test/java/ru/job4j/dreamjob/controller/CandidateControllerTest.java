@@ -7,6 +7,8 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.ui.ConcurrentModel;
 import org.springframework.web.multipart.MultipartFile;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.CandidateSummaryDto;
+import ru.job4j.dreamjob.dto.PageDto;
 import ru.job4j.dreamjob.model.Candidate;
 import ru.job4j.dreamjob.model.City;
 import ru.job4j.dreamjob.service.CandidateService;
@@ -42,15 +44,19 @@ class CandidateControllerTest {
     @Test
     public void whenGetAllThenGetSameDataAndPage() {
         var expectedCandidates = List.of(
-                new Candidate(1, "test1", "desc1", now(), 1, 2),
-                new Candidate(2, "test2", "desc2", now(), 3, 4));
-        when(candidateService.findAll()).thenReturn(expectedCandidates);
+                new CandidateSummaryDto(1, "test1", now(), 2),
+                new CandidateSummaryDto(2, "test2", now(), 4));
+        var expectedPage = new PageDto<>(expectedCandidates, 0, 2, false);
+        when(candidateService.findPage(0, 20)).thenReturn(expectedPage);
         var model = new ConcurrentModel();
 
-        var view = candidateController.getAll(model);
+        var view = candidateController.getAll(model, 0, 20);
         var actualCandidates = model.getAttribute("candidates");
+        var actualPage = model.getAttribute("page");
 
         assertThat(actualCandidates).isEqualTo(expectedCandidates);
+        assertThat(actualPage).isEqualTo(expectedPage);
+        assertThat(model.getAttribute("size")).isEqualTo(20);
         assertThat(view).isEqualTo("candidates/list");
     }
 
@@ -72,7 +78,7 @@ class CandidateControllerTest {
     @Test
     public void whenCreateThenGetSameDataAndPage() throws Exception {
         var candidate = new Candidate(1, "name1", "desc1", now(), 1, 1);
-        var fileDto = new FileDto(testFile.getOriginalFilename(), testFile.getBytes());
+        var fileDto = new FileDto(testFile.getOriginalFilename(), testFile, testFile.getSize());
         var candidateArgumentCaptor = ArgumentCaptor.forClass(Candidate.class);
         var fileDtoArgumentCaptor = ArgumentCaptor.forClass(FileDto.class);
         when(candidateService.save(candidateArgumentCaptor.capture(), fileDtoArgumentCaptor.capture())).thenReturn(candidate);
@@ -141,7 +147,7 @@ class CandidateControllerTest {
     @Test
     public void whenUpdateThenGetSameDataAndPage() throws Exception {
         var candidate = new Candidate(1, "name1", "desc1", now(), 1, 1);
-        var fileDto = new FileDto(testFile.getOriginalFilename(), testFile.getBytes());
+        var fileDto = new FileDto(testFile.getOriginalFilename(), testFile, testFile.getSize());
         var candidateArgumentCaptor = ArgumentCaptor.forClass(Candidate.class);
         var fileDtoArgumentCaptor = ArgumentCaptor.forClass(FileDto.class);
         when(candidateService.update(candidateArgumentCaptor.capture(), fileDtoArgumentCaptor.capture())).thenReturn(true);
@@ -159,7 +165,7 @@ class CandidateControllerTest {
     @Test
     public void whenUpdateUnsuccessfulThenGetSameDataAndPage() throws Exception {
         var candidate = new Candidate(1, "name1", "desc1", now(), 1, 1);
-        var fileDto = new FileDto(testFile.getOriginalFilename(), testFile.getBytes());
+        var fileDto = new FileDto(testFile.getOriginalFilename(), testFile, testFile.getSize());
         var candidateArgumentCaptor = ArgumentCaptor.forClass(Candidate.class);
         var fileDtoArgumentCaptor = ArgumentCaptor.forClass(FileDto.class);
         when(candidateService.update(candidateArgumentCaptor.capture(), fileDtoArgumentCaptor.capture())).thenReturn(false);
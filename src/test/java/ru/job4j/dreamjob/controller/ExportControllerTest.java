@@ -0,0 +1,67 @@
+package ru.job4j.dreamjob.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.job4j.dreamjob.service.DataFormat;
+import ru.job4j.dreamjob.service.ExportService;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ExportControllerTest {
+
+    private ExportService exportService;
+
+    private ExportController exportController;
+
+    @BeforeEach
+    public void initServices() {
+        exportService = mock(ExportService.class);
+        exportController = new ExportController(exportService);
+    }
+
+    @Test
+    public void whenExportThenBodyStreamsFromService() throws Exception {
+        var response = exportController.exportVacancies("NDJSON");
+        var output = new ByteArrayOutputStream();
+
+        response.getBody().writeTo(output);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION))
+                .isEqualTo("attachment; filename=\"vacancies.ndjson\"");
+        verify(exportService).exportVacancies(output, DataFormat.NDJSON);
+    }
+
+    @Test
+    public void whenExportUnknownFormatThenGetBadRequest() {
+        var response = exportController.exportCandidates("xml");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    /* MVC выбирает обработчик ответа по объявленному типу тела, поэтому выгрузка проверяется и через диспетчер */
+    @Test
+    public void whenExportThroughDispatcherThenStreamedAsynchronously() throws Exception {
+        var mockMvc = MockMvcBuilders.standaloneSetup(exportController).build();
+
+        var result = mockMvc.perform(get("/export/vacancies"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"vacancies.csv\""));
+    }
+}
@@ -2,16 +2,29 @@ package ru.job4j.dreamjob.controller;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import ru.job4j.dreamjob.dto.FileDto;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.job4j.dreamjob.dto.FileResourceDto;
 import ru.job4j.dreamjob.service.FileService;
+import ru.job4j.dreamjob.service.ThumbnailSize;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class FileControllerTest {
 
@@ -19,39 +32,122 @@ class FileControllerTest {
 
     private FileController fileController;
 
+    private MockMvc mockMvc;
+
     @BeforeEach
     public void initServices() {
         fileService = mock(FileService.class);
         fileController = new FileController(fileService);
+        mockMvc = MockMvcBuilders.standaloneSetup(fileController).build();
+    }
+
+    private FileResourceDto mockFileOnDisk(Path directory) throws Exception {
+        var path = Files.write(directory.resolve("test.txt"), "0123456789".getBytes());
+        var fileResource = new FileResourceDto("test.txt", new FileSystemResource(path), 10,
+                "etag", Files.getLastModifiedTime(path).toMillis());
+        when(fileService.getFileResourceById(1)).thenReturn(Optional.of(fileResource));
+        return fileResource;
     }
 
     @Test
-    public void whenGetByIdThenGetSameDataAndResponseOk() {
+    public void whenGetByIdThenGetSameResourceAndResponseOk() {
         var id = 1;
-        var content = new byte[] {1, 2, 3};
-        var fileDto = new FileDto("Test1", content);
+        var content = new ByteArrayResource(new byte[] {1, 2, 3});
+        var fileResource = new FileResourceDto("Test1.png", content, 3, "etag", 0);
         var integerArgumentCaptor = ArgumentCaptor.forClass(Integer.class);
-        when(fileService.getFileById(integerArgumentCaptor.capture())).thenReturn(Optional.of(fileDto));
-        var expectedResponse = ResponseEntity.ok(content);
+        when(fileService.getFileResourceById(integerArgumentCaptor.capture())).thenReturn(Optional.of(fileResource));
 
-        var response = fileController.getById(id);
+        var response = fileController.getById(id, null);
         var actualId = integerArgumentCaptor.getValue();
 
         assertThat(actualId).isEqualTo(id);
-        assertThat(response).isEqualTo(expectedResponse);
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody()).isEqualTo(content);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(3);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_PNG);
+    }
+
+    @Test
+    public void whenGetByIdWithUnknownExtensionThenGetOctetStream() {
+        var fileResource = new FileResourceDto("Test1", new ByteArrayResource(new byte[] {1}), 1, "etag", 0);
+        when(fileService.getFileResourceById(1)).thenReturn(Optional.of(fileResource));
+
+        var response = fileController.getById(1, null);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_OCTET_STREAM);
     }
 
     @Test
     public void whenGetByIdUnsuccessfulThenGetSameDataAndResponseNotFound() {
         var id = 1;
         var integerArgumentCaptor = ArgumentCaptor.forClass(Integer.class);
-        when(fileService.getFileById(integerArgumentCaptor.capture())).thenReturn(Optional.empty());
+        when(fileService.getFileResourceById(integerArgumentCaptor.capture())).thenReturn(Optional.empty());
         var expectedResponse = ResponseEntity.notFound().build();
 
-        var response = fileController.getById(id);
+        var response = fileController.getById(id, null);
         var actualId = integerArgumentCaptor.getValue();
 
         assertThat(actualId).isEqualTo(id);
         assertThat(response).isEqualTo(expectedResponse);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenGetByIdThenResponseHasValidators(@TempDir Path directory) throws Exception {
+        mockFileOnDisk(directory);
+
+        mockMvc.perform(get("/files/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"etag\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    public void whenETagMatchesThenResponseNotModified(@TempDir Path directory) throws Exception {
+        mockFileOnDisk(directory);
+
+        mockMvc.perform(get("/files/1").header("If-None-Match", "\"etag\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void whenNotModifiedSinceThenResponseNotModified(@TempDir Path directory) throws Exception {
+        var fileResource = mockFileOnDisk(directory);
+
+        mockMvc.perform(get("/files/1").header("If-Modified-Since", fileResource.getLastModified() + 1000))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void whenRangeRequestedThenGetPartialContent(@TempDir Path directory) throws Exception {
+        mockFileOnDisk(directory);
+
+        mockMvc.perform(get("/files/1").header("Range", "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 2-5/10"))
+                .andExpect(header().longValue("Content-Length", 4))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    public void whenGetByIdWithSizeThenGetThumbnail() {
+        var thumbnail = new FileResourceDto("test.png.small.jpg", new ByteArrayResource(new byte[] {1}), 1, "etag", 0);
+        when(fileService.getFileResourceById(1, ThumbnailSize.SMALL)).thenReturn(Optional.of(thumbnail));
+
+        var response = fileController.getById(1, "small");
+
+        assertThat(response.getBody()).isEqualTo(thumbnail.getContent());
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_JPEG);
+    }
+
+    @Test
+    public void whenGetByIdWithUnknownSizeThenGetOriginal() {
+        var original = new FileResourceDto("test.png", new ByteArrayResource(new byte[] {1}), 1, "etag", 0);
+        when(fileService.getFileResourceById(1)).thenReturn(Optional.of(original));
+
+        var response = fileController.getById(1, "huge");
+
+        assertThat(response.getBody()).isEqualTo(original.getContent());
+    }
+}
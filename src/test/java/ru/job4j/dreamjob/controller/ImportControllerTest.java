@@ -0,0 +1,50 @@
+package ru.job4j.dreamjob.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import ru.job4j.dreamjob.dto.ImportReportDto;
+import ru.job4j.dreamjob.service.DataFormat;
+import ru.job4j.dreamjob.service.ImportService;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImportControllerTest {
+
+    private ImportService importService;
+
+    private ImportController importController;
+
+    @BeforeEach
+    public void initServices() {
+        importService = mock(ImportService.class);
+        importController = new ImportController(importService);
+    }
+
+    @Test
+    public void whenImportNdjsonThenGetReport() {
+        var expectedReport = new ImportReportDto(2, 1, 0, List.of(), 5);
+        when(importService.importVacancies(any(), eq(DataFormat.NDJSON))).thenReturn(expectedReport);
+
+        var response = importController.importVacancies(MediaType.parseMediaType("application/x-ndjson"),
+                new ByteArrayInputStream(new byte[0]));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(expectedReport);
+    }
+
+    @Test
+    public void whenImportUnsupportedFormatThenGetUnsupportedMediaType() {
+        var response = importController.importCandidates(MediaType.APPLICATION_XML, new ByteArrayInputStream(new byte[0]));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+    }
+}
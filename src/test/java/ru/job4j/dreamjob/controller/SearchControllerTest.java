@@ -0,0 +1,54 @@
+package ru.job4j.dreamjob.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ui.ConcurrentModel;
+import ru.job4j.dreamjob.dto.SearchHitDto;
+import ru.job4j.dreamjob.dto.SearchResultDto;
+import ru.job4j.dreamjob.search.SearchType;
+import ru.job4j.dreamjob.service.SearchService;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchControllerTest {
+
+    private SearchService searchService;
+
+    private SearchController searchController;
+
+    @BeforeEach
+    public void initServices() {
+        searchService = mock(SearchService.class);
+        searchController = new SearchController(searchService);
+    }
+
+    @Test
+    public void whenSearchThenGetResultAndPage() {
+        var expectedResult = new SearchResultDto(List.of(new SearchHitDto(1, "Java", 0.5)), 0, false);
+        when(searchService.search(SearchType.CANDIDATE, "java", 0, 20)).thenReturn(expectedResult);
+        var model = new ConcurrentModel();
+
+        var view = searchController.search(model, "java", SearchType.CANDIDATE, 0, 20);
+
+        assertThat(view).isEqualTo("search/list");
+        assertThat(model.getAttribute("result")).isEqualTo(expectedResult);
+        assertThat(model.getAttribute("query")).isEqualTo("java");
+        assertThat(model.getAttribute("size")).isEqualTo(20);
+    }
+
+    @Test
+    public void whenRequestTooLargePageThenPageSizeLimited() {
+        var expectedResult = new SearchResultDto(List.of(), 0, false);
+        when(searchService.search(SearchType.VACANCY, "java", 0, 100)).thenReturn(expectedResult);
+        var model = new ConcurrentModel();
+
+        searchController.search(model, "java", SearchType.VACANCY, -1, 1000);
+
+        assertThat(model.getAttribute("result")).isEqualTo(expectedResult);
+        assertThat(model.getAttribute("size")).isEqualTo(100);
+    }
+}
@@ -7,11 +7,15 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.ui.ConcurrentModel;
 import org.springframework.web.multipart.MultipartFile;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.PageDto;
+import ru.job4j.dreamjob.dto.VacancyFilterDto;
+import ru.job4j.dreamjob.dto.VacancySummaryDto;
 import ru.job4j.dreamjob.model.City;
 import ru.job4j.dreamjob.model.Vacancy;
 import ru.job4j.dreamjob.service.CityService;
 import ru.job4j.dreamjob.service.VacancyService;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,17 +43,50 @@ public class VacancyControllerTest {
 
     @Test
     public void whenRequestVacancyListPageThenGetPageWithVacancies() {
-        var vacancy1 = new Vacancy(1, "test1", "desc1", now(), true, 1, 2);
-        var vacancy2 = new Vacancy(2, "test2", "desc2", now(), false, 3, 4);
+        var vacancy1 = new VacancySummaryDto(1, "test1", now(), true, 2);
+        var vacancy2 = new VacancySummaryDto(2, "test2", now(), false, 4);
         var expectedVacancies = List.of(vacancy1, vacancy2);
-        when(vacancyService.findAll()).thenReturn(expectedVacancies);
+        var expectedPage = new PageDto<>(expectedVacancies, 0, 2, true);
+        var filter = new VacancyFilterDto();
+        when(vacancyService.findPage(filter, null, 0, 20)).thenReturn(expectedPage);
 
         var model = new ConcurrentModel();
-        var view = vacancyController.getAll(model);
+        var view = vacancyController.getAll(model, filter, null, 0, 20);
         var actualVacancies = model.getAttribute("vacancies");
+        var actualPage = model.getAttribute("page");
 
         assertThat(view).isEqualTo("vacancies/list");
         assertThat(actualVacancies).isEqualTo(expectedVacancies);
+        assertThat(actualPage).isEqualTo(expectedPage);
+        assertThat(model.getAttribute("size")).isEqualTo(20);
+    }
+
+    @Test
+    public void whenRequestFilteredListThenFilterPassedToService() {
+        var filter = new VacancyFilterDto(1, true, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7));
+        var expectedVacancies = List.of(new VacancySummaryDto(3, "test3", now(), true, 5));
+        when(vacancyService.findPage(filter, null, 0, 20)).thenReturn(new PageDto<>(expectedVacancies, 0, 3, false));
+
+        var model = new ConcurrentModel();
+        var view = vacancyController.getAll(model, filter, null, 0, 20);
+        var actualVacancies = model.getAttribute("vacancies");
+
+        assertThat(view).isEqualTo("vacancies/list");
+        assertThat(actualVacancies).isEqualTo(expectedVacancies);
+    }
+
+    @Test
+    public void whenRequestTooLargePageThenPageSizeLimited() {
+        var filter = new VacancyFilterDto();
+        var afterDate = now();
+        when(vacancyService.findPage(filter, afterDate, 5, 100)).thenReturn(new PageDto<VacancySummaryDto>(List.of(), 5, 5, afterDate, false));
+
+        var model = new ConcurrentModel();
+        vacancyController.getAll(model, filter, afterDate, 5, 1000);
+        var actualVacancies = model.getAttribute("vacancies");
+
+        assertThat(actualVacancies).isEqualTo(List.of());
+        assertThat(model.getAttribute("size")).isEqualTo(100);
     }
 
     @Test
@@ -70,7 +107,7 @@ public class VacancyControllerTest {
     @Test
     public void whenPostVacancyWithFileThenSameDataAndRedirectToVacanciesPage() throws Exception {
         var vacancy = new Vacancy(1, "test1", "desc1", now(), true, 1, 2);
-        var fileDto = new FileDto(testFile.getOriginalFilename(), testFile.getBytes());
+        var fileDto = new FileDto(testFile.getOriginalFilename(), testFile, testFile.getSize());
         var vacancyArgumentCaptor = ArgumentCaptor.forClass(Vacancy.class);
         var fileDtoArgumentCaptor = ArgumentCaptor.forClass(FileDto.class);
         when(vacancyService.save(vacancyArgumentCaptor.capture(), fileDtoArgumentCaptor.capture())).thenReturn(vacancy);
@@ -140,7 +177,7 @@ public class VacancyControllerTest {
     @Test
     public void whenUpdateSuccessfulThenSameDataAndGetPage() throws Exception {
         var vacancy = new Vacancy(1, "test1", "desc1", now(), true, 1, 2);
-        var fileDto = new FileDto(testFile.getOriginalFilename(), testFile.getBytes());
+        var fileDto = new FileDto(testFile.getOriginalFilename(), testFile, testFile.getSize());
         var vacancyArgumentCaptor = ArgumentCaptor.forClass(Vacancy.class);
         var fileDtoArgumentCaptor = ArgumentCaptor.forClass(FileDto.class);
         when(vacancyService.update(vacancyArgumentCaptor.capture(), fileDtoArgumentCaptor.capture())).thenReturn(true);
@@ -158,7 +195,7 @@ public class VacancyControllerTest {
     @Test
     public void whenUpdateUnsuccessfulThenSameDataAndGetPageAndMessage() throws Exception {
         var vacancy = new Vacancy(1, "test1", "desc1", now(), true, 1, 2);
-        var fileDto = new FileDto(testFile.getOriginalFilename(), testFile.getBytes());
+        var fileDto = new FileDto(testFile.getOriginalFilename(), testFile, testFile.getSize());
         var vacancyArgumentCaptor = ArgumentCaptor.forClass(Vacancy.class);
         var fileDtoArgumentCaptor = ArgumentCaptor.forClass(FileDto.class);
         when(vacancyService.update(vacancyArgumentCaptor.capture(), fileDtoArgumentCaptor.capture())).thenReturn(false);
@@ -0,0 +1,77 @@
+package ru.job4j.dreamjob.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.job4j.dreamjob.tracing.TraceExporter;
+import ru.job4j.dreamjob.tracing.Tracer;
+
+import javax.servlet.FilterChain;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, 50,
+            new Tracer(true, 10, 100, new TraceExporter(new ObjectMapper(), "", Duration.ZERO)), meterRegistry);
+
+    @Test
+    public void whenLimitReachedThenRequestRejectedUntilPermitReleased() throws Exception {
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        FilterChain blockingChain = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        var first = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), blockingChain);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        var rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), rejected, (request, response) -> { });
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        var accepted = new MockHttpServletResponse();
+        var isCalled = new boolean[1];
+        filter.doFilter(new MockHttpServletRequest(), accepted, (request, response) -> isCalled[0] = true);
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.get("dreamjob.requests.rejected").counter().count()).isEqualTo(1);
+        assertThat(accepted.getStatus()).isEqualTo(200);
+        assertThat(isCalled[0]).isTrue();
+    }
+
+    @Test
+    public void whenAsyncRequestThenPermitHeldUntilAsyncCompleted() throws Exception {
+        var asyncRequest = new MockHttpServletRequest();
+        asyncRequest.setAsyncSupported(true);
+        filter.doFilter(asyncRequest, new MockHttpServletResponse(), (request, response) -> request.startAsync());
+
+        var rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), rejected, (request, response) -> { });
+        asyncRequest.getAsyncContext().complete();
+        var accepted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), accepted, (request, response) -> { });
+
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(accepted.getStatus()).isEqualTo(200);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.job4j.dreamjob.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.job4j.dreamjob.model.City;
+import ru.job4j.dreamjob.repository.CityRepository;
+import ru.job4j.dreamjob.service.CityService;
+import ru.job4j.dreamjob.service.SimpleCityService;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CallMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CityRepository cityRepository;
+
+    @BeforeEach
+    public void initRegistry() {
+        meterRegistry = new SimpleMeterRegistry();
+        cityRepository = mock(CityRepository.class);
+    }
+
+    private CityService proxy(CityService target) {
+        var proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new CallMetricsAspect(meterRegistry));
+        return proxyFactory.getProxy();
+    }
+
+    @Test
+    public void whenServiceCalledThenTimerRecordedWithoutException() {
+        when(cityRepository.findAll()).thenReturn(List.of(new City(1, "Москва")));
+        var cityService = proxy(new SimpleCityService(cityRepository));
+
+        cityService.findAll();
+        cityService.findAll();
+
+        var timer = meterRegistry.get(CallMetricsAspect.SERVICE_METRIC)
+                .tags("class", "SimpleCityService", "method", "findAll", "exception", "none")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenServiceThrowsThenTimerTaggedWithException() {
+        var cityService = proxy(new FailingCityService());
+
+        assertThatThrownBy(cityService::findAll).isInstanceOf(IllegalStateException.class);
+
+        var timer = meterRegistry.get(CallMetricsAspect.SERVICE_METRIC)
+                .tags("method", "findAll", "exception", "IllegalStateException")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    private static class FailingCityService implements CityService {
+
+        @Override
+        public Collection<City> findAll() {
+            throw new IllegalStateException("database is down");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.job4j.dreamjob.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.dto.StatementStatsDto;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementMetricsTest {
+
+    private StatementMetrics createMetrics(int maxStatements) {
+        return new StatementMetrics(new SimpleMeterRegistry(), Duration.ZERO, maxStatements);
+    }
+
+    private Sql2o openDatabase(StatementMetrics metrics, String name) {
+        var sql2o = new Sql2o(metrics.wrap(new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1")));
+        try (var connection = sql2o.open()) {
+            connection.createQuery("CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(20))").executeUpdate();
+        }
+        return sql2o;
+    }
+
+    @Test
+    public void whenStatementsExecutedThenStatsGroupedByTemplate() {
+        var metrics = createMetrics(100);
+        var sql2o = openDatabase(metrics, "templates");
+
+        try (var connection = sql2o.open()) {
+            for (int id = 1; id <= 3; id++) {
+                connection.createQuery("INSERT INTO items (id, name)\n    VALUES (:id, :name)")
+                        .addParameter("id", id)
+                        .addParameter("name", "item" + id)
+                        .executeUpdate();
+            }
+            connection.createQuery("SELECT id, name FROM items WHERE id > :id").addParameter("id", 1).executeAndFetchTable();
+        }
+
+        var statistics = metrics.findSlowest(10);
+        assertThat(statistics).extracting(StatementStatsDto::getSql)
+                .contains("INSERT INTO items (id, name) VALUES (?, ?)", "SELECT id, name FROM items WHERE id > ?");
+        var insert = statistics.stream().filter(stats -> stats.getSql().startsWith("INSERT")).findFirst().orElseThrow();
+        var select = statistics.stream().filter(stats -> stats.getSql().startsWith("SELECT")).findFirst().orElseThrow();
+        assertThat(insert.getExecutions()).isEqualTo(3);
+        assertThat(insert.getRows()).isEqualTo(3);
+        assertThat(select.getExecutions()).isEqualTo(1);
+        assertThat(select.getRows()).isEqualTo(2);
+        assertThat(statistics).isSortedAccordingTo((left, right) -> Double.compare(right.getMaxMillis(), left.getMaxMillis()));
+    }
+
+    @Test
+    public void whenTooManyTemplatesThenRestGoToOther() {
+        var metrics = createMetrics(2);
+        var sql2o = openDatabase(metrics, "overflow");
+
+        try (var connection = sql2o.open()) {
+            connection.createQuery("SELECT 1").executeScalar();
+            connection.createQuery("SELECT 2").executeScalar();
+        }
+
+        assertThat(metrics.findSlowest(10)).extracting(StatementStatsDto::getSql)
+                .containsExactlyInAnyOrder("CREATE TABLE items (id INT PRIMARY KEY, name VARCHAR(20))", "SELECT 1", "other");
+    }
+}
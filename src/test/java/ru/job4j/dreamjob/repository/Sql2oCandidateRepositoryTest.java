@@ -1,14 +1,21 @@
 package ru.job4j.dreamjob.repository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.cache.LoopbackInvalidationBus;
+import ru.job4j.dreamjob.configuration.ConnectionPoolProperties;
 import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.metrics.StatementMetrics;
+import ru.job4j.dreamjob.dto.CandidateSummaryDto;
 import ru.job4j.dreamjob.model.Candidate;
 import ru.job4j.dreamjob.model.File;
 
+import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 
@@ -37,10 +44,12 @@ public class Sql2oCandidateRepositoryTest {
         var password = properties.getProperty("datasource.password");
 
         var configuration = new DatasourceConfiguration();
-        var datasource = configuration.connectionPool(url, username, password);
-        var sql2o = configuration.databaseClient(datasource);
+        var datasource = configuration.connectionPool(url, username, password, new ConnectionPoolProperties());
+        var sql2o = configuration.databaseClient(datasource,
+                new StatementMetrics(new SimpleMeterRegistry(), Duration.ofSeconds(1), 100));
+        var invalidationBus = new LoopbackInvalidationBus();
 
-        sql2oCandidateRepository = new Sql2oCandidateRepository(sql2o);
+        sql2oCandidateRepository = new Sql2oCandidateRepository(sql2o, invalidationBus);
         sql2oFileRepository = new Sql2oFileRepository(sql2o);
 
         /*нужно сохранить хотя бы один файл, т.к. Vacancy от него зависит*/
@@ -83,6 +92,53 @@ public class Sql2oCandidateRepositoryTest {
         assertThat(result).isEqualTo(List.of(candidate1, candidate2, candidate3));
     }
 
+    @Test
+    public void whenFindPageThenGetCandidatesAfterIdInOrder() {
+        var creationDate = now().truncatedTo(ChronoUnit.MINUTES);
+        var candidate1 = sql2oCandidateRepository.save(
+                new Candidate(0, "name1", "description1", creationDate, 1, file.getId()));
+        var candidate2 = sql2oCandidateRepository.save(
+                new Candidate(0, "name2", "description2", creationDate, 1, file.getId()));
+        var candidate3 = sql2oCandidateRepository.save(
+                new Candidate(0, "name3", "description3", creationDate, 1, file.getId()));
+        var firstPage = sql2oCandidateRepository.findPage(0, 2);
+        var secondPage = sql2oCandidateRepository.findPage(candidate2.getId(), 2);
+        assertThat(firstPage).isEqualTo(List.of(toSummary(candidate1), toSummary(candidate2)));
+        assertThat(secondPage).isEqualTo(List.of(toSummary(candidate3)));
+        assertThat(secondPage.iterator().next()).usingRecursiveComparison().isEqualTo(toSummary(candidate3));
+    }
+
+    @Test
+    public void whenScanAllThenGetEveryCandidateInOrder() {
+        var creationDate = now().truncatedTo(ChronoUnit.MINUTES);
+        var candidate1 = sql2oCandidateRepository.save(
+                new Candidate(0, "name1", "description1", creationDate, 1, file.getId()));
+        var candidate2 = sql2oCandidateRepository.save(
+                new Candidate(0, "name2", "description2", creationDate, 1, file.getId()));
+        var scanned = new ArrayList<Candidate>();
+        sql2oCandidateRepository.scanAll(scanned::add);
+        assertThat(scanned).isEqualTo(List.of(candidate1, candidate2));
+    }
+
+    @Test
+    public void whenSaveAllThenIdsGeneratedAndUpdateAllSkipsUnknown() {
+        var creationDate = now().truncatedTo(ChronoUnit.MINUTES);
+        var candidate1 = new Candidate(0, "name1", "description1", creationDate, 1, file.getId());
+        var candidate2 = new Candidate(0, "name2", "description2", creationDate, 1, 0);
+        sql2oCandidateRepository.saveAll(List.of(candidate1, candidate2));
+        var changedCandidate = new Candidate(candidate2.getId(), "new name", "new description", creationDate, 2, 0);
+        var unknownCandidate = new Candidate(candidate2.getId() + 1, "name", "description", creationDate, 1, 0);
+        var updated = sql2oCandidateRepository.updateAll(List.of(changedCandidate, unknownCandidate));
+        assertThat(sql2oCandidateRepository.findAll()).isEqualTo(List.of(candidate1, candidate2));
+        assertThat(updated).isEqualTo(List.of(changedCandidate));
+        assertThat(sql2oCandidateRepository.findById(candidate2.getId()).get().getName()).isEqualTo("new name");
+    }
+
+    private CandidateSummaryDto toSummary(Candidate candidate) {
+        return new CandidateSummaryDto(candidate.getId(), candidate.getName(), candidate.getCreationDate(),
+                candidate.getFileId());
+    }
+
     @Test
     public void whenDontSaveThenNothingFound() {
         assertThat(sql2oCandidateRepository.findAll()).isEqualTo(emptyList());
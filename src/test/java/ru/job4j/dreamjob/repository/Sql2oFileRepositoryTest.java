@@ -0,0 +1,214 @@
+package ru.job4j.dreamjob.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.job4j.dreamjob.cache.LoopbackInvalidationBus;
+import ru.job4j.dreamjob.configuration.ConnectionPoolProperties;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.metrics.StatementMetrics;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.Vacancy;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Optional.empty;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class Sql2oFileRepositoryTest {
+
+    private static Sql2oFileRepository sql2oFileRepository;
+
+    private static Sql2oVacancyRepository sql2oVacancyRepository;
+
+    private static TransactionTemplate transactionTemplate;
+
+    private final List<File> savedFiles = new ArrayList<>();
+
+    @BeforeAll
+    public static void initRepositories() throws Exception {
+        var properties = new Properties();
+        try (var inputStream = Sql2oFileRepositoryTest.class.getClassLoader().getResourceAsStream("connection.properties")) {
+            properties.load(inputStream);
+        }
+        var url = properties.getProperty("datasource.url");
+        var username = properties.getProperty("datasource.username");
+        var password = properties.getProperty("datasource.password");
+
+        var configuration = new DatasourceConfiguration();
+        var datasource = configuration.connectionPool(url, username, password, new ConnectionPoolProperties());
+        var sql2o = configuration.databaseClient(datasource,
+                new StatementMetrics(new SimpleMeterRegistry(), Duration.ofSeconds(1), 100));
+        var invalidationBus = new LoopbackInvalidationBus();
+
+        sql2oFileRepository = new Sql2oFileRepository(sql2o);
+        sql2oVacancyRepository = new Sql2oVacancyRepository(sql2o, invalidationBus);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(datasource));
+    }
+
+    @AfterEach
+    public void clearFiles() {
+        for (var file : savedFiles) {
+            sql2oFileRepository.deleteById(file.getId());
+        }
+    }
+
+    private File save(String name, String path) {
+        var file = new File(name, path);
+        file.setSize(3);
+        file.setChecksum("checksum");
+        savedFiles.add(sql2oFileRepository.save(file));
+        return file;
+    }
+
+    @Test
+    public void whenSaveThenFindByIdAndPath() {
+        var file = save("name", "path/name");
+
+        var foundById = sql2oFileRepository.findById(file.getId()).get();
+        var foundByPath = sql2oFileRepository.findByPath("path/name").get();
+
+        assertThat(foundById).usingRecursiveComparison().isEqualTo(file);
+        assertThat(foundByPath).usingRecursiveComparison().isEqualTo(file);
+    }
+
+    @Test
+    public void whenDontSaveThenNothingFound() {
+        assertThat(sql2oFileRepository.findById(0)).isEqualTo(empty());
+        assertThat(sql2oFileRepository.findByPath("path/unknown")).isEqualTo(empty());
+    }
+
+    @Test
+    public void whenAddReferenceToUnknownPathThenGetFalse() {
+        assertThat(sql2oFileRepository.addReference("path/unknown")).isFalse();
+    }
+
+    @Test
+    public void whenRemoveOnlyReferenceThenFileDeleted() {
+        var file = save("name", "path/name");
+
+        var isLastReference = sql2oFileRepository.removeReference(file.getId());
+
+        assertThat(isLastReference).isTrue();
+        assertThat(sql2oFileRepository.findById(file.getId())).isEqualTo(empty());
+    }
+
+    @Test
+    public void whenRemoveOneOfSeveralReferencesThenFileKept() {
+        var file = save("name", "path/name");
+        var isAdded = sql2oFileRepository.addReference("path/name");
+
+        var isFirstRemovalLast = sql2oFileRepository.removeReference(file.getId());
+        var isSecondRemovalLast = sql2oFileRepository.removeReference(file.getId());
+
+        assertThat(isAdded).isTrue();
+        assertThat(isFirstRemovalLast).isFalse();
+        assertThat(isSecondRemovalLast).isTrue();
+        assertThat(sql2oFileRepository.findById(file.getId())).isEqualTo(empty());
+    }
+
+    @Test
+    public void whenFindPageThenGetFilesAfterIdInOrder() {
+        var file1 = save("name1", "path/name1");
+        var file2 = save("name2", "path/name2");
+        var file3 = save("name3", "path/name3");
+
+        var firstPage = sql2oFileRepository.findPage(file1.getId() - 1, 2);
+        var secondPage = sql2oFileRepository.findPage(file2.getId(), 2);
+
+        assertThat(firstPage).isEqualTo(List.of(file1, file2));
+        assertThat(secondPage).isEqualTo(List.of(file3));
+    }
+
+    @Test
+    public void whenUpdatePathsThenFoundByNewPaths() {
+        var file1 = save("name1", "path/name1");
+        var file2 = save("name2", "path/name2");
+        file1.setPath("path/na/name1");
+        file2.setPath("path/na/name2");
+
+        sql2oFileRepository.updatePaths(List.of(file1, file2));
+
+        assertThat(sql2oFileRepository.findById(file1.getId()).get().getPath()).isEqualTo("path/na/name1");
+        assertThat(sql2oFileRepository.findById(file2.getId()).get().getPath()).isEqualTo("path/na/name2");
+        assertThat(sql2oFileRepository.findByPath("path/name1")).isEqualTo(empty());
+    }
+
+    @Test
+    public void whenFindUnreferencedThenVacancyFileSkipped() {
+        var file1 = save("name1", "path/name1");
+        var file2 = save("name2", "path/name2");
+        var vacancy = sql2oVacancyRepository.save(new Vacancy(0, "title", "description", LocalDateTime.now(), true, 1, file1.getId()));
+
+        var unreferenced = sql2oFileRepository.findUnreferenced(file1.getId() - 1, 10);
+        var isReferencedDeleted = sql2oFileRepository.deleteUnreferenced(file1.getId());
+        var isUnreferencedDeleted = sql2oFileRepository.deleteUnreferenced(file2.getId());
+        sql2oVacancyRepository.deleteById(vacancy.getId());
+
+        assertThat(unreferenced).isEqualTo(List.of(file2));
+        assertThat(isReferencedDeleted).isFalse();
+        assertThat(isUnreferencedDeleted).isTrue();
+        assertThat(sql2oFileRepository.findById(file2.getId())).isEqualTo(empty());
+    }
+
+    @Test
+    public void whenFindExistingPathsThenUnknownPathsSkipped() {
+        save("name1", "path/name1");
+        save("name2", "path/name2");
+
+        var existingPaths = sql2oFileRepository.findExistingPaths(List.of("path/name1", "path/name2", "path/unknown"));
+
+        assertThat(existingPaths).containsExactlyInAnyOrder("path/name1", "path/name2");
+    }
+
+    @Test
+    public void whenSaveIfAbsentTwiceThenSecondGetsFalse() {
+        var file = new File("name", "path/name");
+
+        var isFirstSaved = sql2oFileRepository.saveIfAbsent(file);
+        savedFiles.add(file);
+        var isSecondSaved = sql2oFileRepository.saveIfAbsent(new File("other", "path/name"));
+
+        assertThat(isFirstSaved).isTrue();
+        assertThat(isSecondSaved).isFalse();
+        assertThat(sql2oFileRepository.findByPath("path/name").get().getId()).isEqualTo(file.getId());
+    }
+
+    @Test
+    public void whenSamePathSavedInConcurrentTransactionThenSecondWaitsAndAddsReference() throws Exception {
+        var file = new File("name", "path/name");
+        var inserted = new CountDownLatch(1);
+        var first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            sql2oFileRepository.saveIfAbsent(file);
+            inserted.countDown();
+            try {
+                TimeUnit.MILLISECONDS.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        var isSecondSaved = transactionTemplate.execute(status -> {
+            var isSaved = sql2oFileRepository.saveIfAbsent(new File("other", "path/name"));
+            sql2oFileRepository.addReference("path/name");
+            return isSaved;
+        });
+        first.get(5, TimeUnit.SECONDS);
+        savedFiles.add(file);
+
+        assertThat(isSecondSaved).isFalse();
+        assertThat(sql2oFileRepository.removeReference(file.getId())).isFalse();
+        assertThat(sql2oFileRepository.removeReference(file.getId())).isTrue();
+    }
+}
@@ -1,12 +1,16 @@
 package ru.job4j.dreamjob.repository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.configuration.ConnectionPoolProperties;
 import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.metrics.StatementMetrics;
 import ru.job4j.dreamjob.model.User;
 
+import java.time.Duration;
 import java.util.Properties;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
@@ -28,8 +32,9 @@ class Sql2oUserRepositoryTest {
         var password = properties.getProperty("datasource.password");
 
         var configuration = new DatasourceConfiguration();
-        var datasource = configuration.connectionPool(url, username, password);
-        sql2o = configuration.databaseClient(datasource);
+        var datasource = configuration.connectionPool(url, username, password, new ConnectionPoolProperties());
+        sql2o = configuration.databaseClient(datasource,
+                new StatementMetrics(new SimpleMeterRegistry(), Duration.ofSeconds(1), 100));
 
         sql2oUserRepository = new Sql2oUserRepository(sql2o);
     }
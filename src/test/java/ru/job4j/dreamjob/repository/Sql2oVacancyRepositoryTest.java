@@ -1,14 +1,25 @@
 package ru.job4j.dreamjob.repository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.cache.InvalidationTopic;
+import ru.job4j.dreamjob.cache.LoopbackInvalidationBus;
+import ru.job4j.dreamjob.configuration.ConnectionPoolProperties;
 import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.metrics.StatementMetrics;
+import ru.job4j.dreamjob.dto.VacancyFilterDto;
+import ru.job4j.dreamjob.dto.VacancySummaryDto;
 import ru.job4j.dreamjob.model.File;
 import ru.job4j.dreamjob.model.Vacancy;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 
@@ -23,6 +34,8 @@ public class Sql2oVacancyRepositoryTest {
 
     private static Sql2oFileRepository sql2oFileRepository;
 
+    private static LoopbackInvalidationBus invalidationBus;
+
     private static File file;
 
     @BeforeAll
@@ -36,10 +49,12 @@ public class Sql2oVacancyRepositoryTest {
         var password = properties.getProperty("datasource.password");
 
         var configuration = new DatasourceConfiguration();
-        var datasource = configuration.connectionPool(url, username, password);
-        var sql2o = configuration.databaseClient(datasource);
+        var datasource = configuration.connectionPool(url, username, password, new ConnectionPoolProperties());
+        var sql2o = configuration.databaseClient(datasource,
+                new StatementMetrics(new SimpleMeterRegistry(), Duration.ofSeconds(1), 100));
+        invalidationBus = new LoopbackInvalidationBus();
 
-        sql2oVacancyRepository = new Sql2oVacancyRepository(sql2o);
+        sql2oVacancyRepository = new Sql2oVacancyRepository(sql2o, invalidationBus);
         sql2oFileRepository = new Sql2oFileRepository(sql2o);
 
         /*нужно сохранить хотя бы один файл, т.к. Vacancy от него зависит*/
@@ -78,6 +93,51 @@ public class Sql2oVacancyRepositoryTest {
         assertThat(result).isEqualTo(List.of(vacancy1, vacancy2, vacancy3));
     }
 
+    @Test
+    public void whenFindPageThenGetVacanciesNewestFirst() {
+        var creationDate = now().truncatedTo(ChronoUnit.MINUTES);
+        var vacancy1 = sql2oVacancyRepository.save(new Vacancy(0, "title1", "description1", creationDate, true, 1, file.getId()));
+        var vacancy2 = sql2oVacancyRepository.save(new Vacancy(0, "title2", "description2", creationDate, false, 1, file.getId()));
+        var vacancy3 = sql2oVacancyRepository.save(new Vacancy(0, "title3", "description3", creationDate, true, 1, file.getId()));
+        var firstPage = sql2oVacancyRepository.findPage(new VacancyFilterDto(), null, 0, 2);
+        var secondPage = sql2oVacancyRepository.findPage(new VacancyFilterDto(), creationDate, vacancy2.getId(), 2);
+        assertThat(firstPage).isEqualTo(List.of(toSummary(vacancy3), toSummary(vacancy2)));
+        assertThat(secondPage).isEqualTo(List.of(toSummary(vacancy1)));
+        assertThat(secondPage.iterator().next()).usingRecursiveComparison().isEqualTo(toSummary(vacancy1));
+    }
+
+    @Test
+    public void whenLastShownVacancyDeletedThenNextPageStillFound() {
+        var monday = LocalDateTime.of(2024, 1, 1, 10, 0);
+        var vacancy1 = sql2oVacancyRepository.save(new Vacancy(0, "title1", "description1", monday, true, 1, file.getId()));
+        var vacancy2 = sql2oVacancyRepository.save(new Vacancy(0, "title2", "description2", monday.plusDays(1), true, 1, file.getId()));
+        sql2oVacancyRepository.save(new Vacancy(0, "title3", "description3", monday.plusDays(2), true, 1, file.getId()));
+        sql2oVacancyRepository.deleteById(vacancy2.getId());
+        var nextPage = sql2oVacancyRepository.findPage(new VacancyFilterDto(), vacancy2.getCreationDate(), vacancy2.getId(), 2);
+        assertThat(nextPage).isEqualTo(List.of(toSummary(vacancy1)));
+    }
+
+    @Test
+    public void whenFindByFilterThenGetMatchingVacanciesNewestFirst() {
+        var monday = LocalDateTime.of(2024, 1, 1, 10, 0);
+        var vacancy1 = sql2oVacancyRepository.save(new Vacancy(0, "title1", "description1", monday, true, 1, file.getId()));
+        var vacancy2 = sql2oVacancyRepository.save(new Vacancy(0, "title2", "description2", monday.plusDays(2), true, 1, file.getId()));
+        var vacancy3 = sql2oVacancyRepository.save(new Vacancy(0, "title3", "description3", monday.plusDays(3), true, 1, file.getId()));
+        sql2oVacancyRepository.save(new Vacancy(0, "title4", "description4", monday.plusDays(3), false, 1, file.getId()));
+        sql2oVacancyRepository.save(new Vacancy(0, "title5", "description5", monday.plusDays(3), true, 2, file.getId()));
+        sql2oVacancyRepository.save(new Vacancy(0, "title6", "description6", monday.plusDays(7), true, 1, file.getId()));
+        var filter = new VacancyFilterDto(1, true, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7));
+        var firstPage = sql2oVacancyRepository.findPage(filter, null, 0, 2);
+        var secondPage = sql2oVacancyRepository.findPage(filter, vacancy2.getCreationDate(), vacancy2.getId(), 2);
+        assertThat(firstPage).isEqualTo(List.of(toSummary(vacancy3), toSummary(vacancy2)));
+        assertThat(secondPage).isEqualTo(List.of(toSummary(vacancy1)));
+    }
+
+    private VacancySummaryDto toSummary(Vacancy vacancy) {
+        return new VacancySummaryDto(vacancy.getId(), vacancy.getTitle(), vacancy.getCreationDate(),
+                vacancy.getVisible(), vacancy.getFileId());
+    }
+
     @Test
     public void whenDontSaveThenNothingFound() {
         assertThat(sql2oVacancyRepository.findAll()).isEqualTo(emptyList());
@@ -113,6 +173,35 @@ public class Sql2oVacancyRepositoryTest {
         assertThat(savedVacancy).usingRecursiveComparison().isEqualTo(updatedVacancy);
     }
 
+    @Test
+    public void whenUpdateAndDeleteThenInvalidationPublished() {
+        var invalidated = new ArrayList<Integer>();
+        invalidationBus.subscribe(InvalidationTopic.VACANCIES, invalidated::add, invalidated::clear);
+        var creationDate = now().truncatedTo(ChronoUnit.MINUTES);
+        var vacancy = sql2oVacancyRepository.save(new Vacancy(0, "title", "description", creationDate, true, 1, file.getId()));
+        sql2oVacancyRepository.update(vacancy);
+        sql2oVacancyRepository.deleteById(vacancy.getId());
+        sql2oVacancyRepository.deleteById(vacancy.getId());
+        assertThat(invalidated).isEqualTo(List.of(vacancy.getId(), vacancy.getId(), vacancy.getId()));
+    }
+
+    @Test
+    public void whenSaveAllThenIdsGeneratedAndUpdateAllSkipsUnknown() {
+        var creationDate = now().truncatedTo(ChronoUnit.MINUTES);
+        var vacancy1 = new Vacancy(0, "title1", "description1", creationDate, true, 1, file.getId());
+        var vacancy2 = new Vacancy(0, "title2", "description2", creationDate, false, 2, 0);
+        sql2oVacancyRepository.saveAll(List.of(vacancy1, vacancy2));
+        var changedVacancy = new Vacancy(vacancy1.getId(), "new title", "new description", creationDate, false, 2, 0);
+        var unknownVacancy = new Vacancy(vacancy2.getId() + 1, "title", "description", creationDate, true, 1, 0);
+        var updated = sql2oVacancyRepository.updateAll(List.of(changedVacancy, unknownVacancy));
+        var savedVacancy = sql2oVacancyRepository.findById(vacancy1.getId()).get();
+        assertThat(vacancy2.getId()).isGreaterThan(vacancy1.getId());
+        assertThat(sql2oVacancyRepository.findById(vacancy2.getId()).get().getFileId()).isEqualTo(0);
+        assertThat(updated).isEqualTo(List.of(changedVacancy));
+        assertThat(savedVacancy.getTitle()).isEqualTo("new title");
+        assertThat(savedVacancy.getFileId()).isEqualTo(file.getId());
+    }
+
     @Test
     public void whenUpdateUnExistingVacancyThenGetFalse() {
         var creationDate = now().truncatedTo(ChronoUnit.MINUTES);
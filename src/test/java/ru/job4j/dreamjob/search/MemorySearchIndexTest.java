@@ -0,0 +1,141 @@
+package ru.job4j.dreamjob.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.CandidateRepository;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class MemorySearchIndexTest {
+
+    private VacancyRepository vacancyRepository;
+
+    private MemorySearchIndex searchIndex;
+
+    @BeforeEach
+    public void initIndex() {
+        vacancyRepository = mock(VacancyRepository.class);
+        searchIndex = new MemorySearchIndex(vacancyRepository, mock(CandidateRepository.class));
+    }
+
+    @Test
+    public void whenSearchThenDocumentsWithAllTermsFound() {
+        searchIndex.put(SearchType.VACANCY, 1, "Java Developer", "Spring, Hibernate");
+        searchIndex.put(SearchType.VACANCY, 2, "Python Developer", "Django");
+        searchIndex.put(SearchType.VACANCY, 3, "Тестировщик", "Знание Java и SQL");
+
+        var hits = searchIndex.search(SearchType.VACANCY, "java", 0, 10);
+        var bothTermsHits = searchIndex.search(SearchType.VACANCY, "JAVA spring", 0, 10);
+
+        assertThat(hits).extracting("id").containsExactlyInAnyOrder(1, 3);
+        assertThat(bothTermsHits).extracting("id").containsExactly(1);
+        assertThat(searchIndex.search(SearchType.CANDIDATE, "java", 0, 10)).isEmpty();
+    }
+
+    @Test
+    public void whenTermInTitleThenRankedHigherThanInDescription() {
+        searchIndex.put(SearchType.VACANCY, 1, "Аналитик", "Нужен опыт с Java");
+        searchIndex.put(SearchType.VACANCY, 2, "Java разработчик", "Backend");
+
+        var hits = searchIndex.search(SearchType.VACANCY, "java", 0, 10);
+
+        assertThat(hits).extracting("id").containsExactly(2, 1);
+        assertThat(hits.get(0).getTitle()).isEqualTo("Java разработчик");
+    }
+
+    @Test
+    public void whenSearchWithOffsetThenGetNextPage() {
+        for (int id = 1; id <= 5; id++) {
+            searchIndex.put(SearchType.VACANCY, id, "Java", "");
+        }
+
+        var firstPage = searchIndex.search(SearchType.VACANCY, "java", 0, 2);
+        var lastPage = searchIndex.search(SearchType.VACANCY, "java", 4, 2);
+
+        assertThat(firstPage).extracting("id").containsExactly(5, 4);
+        assertThat(lastPage).extracting("id").containsExactly(1);
+    }
+
+    @Test
+    public void whenUpdateAndRemoveThenOldTermsNotFound() {
+        searchIndex.put(SearchType.VACANCY, 1, "Java", "");
+        searchIndex.put(SearchType.VACANCY, 1, "Kotlin", "");
+        searchIndex.put(SearchType.VACANCY, 2, "Kotlin", "");
+        searchIndex.remove(SearchType.VACANCY, 2);
+
+        assertThat(searchIndex.search(SearchType.VACANCY, "java", 0, 10)).isEmpty();
+        assertThat(searchIndex.search(SearchType.VACANCY, "kotlin", 0, 10)).extracting("id").containsExactly(1);
+    }
+
+    @Test
+    public void whenRebuildThenRepositoryContentIndexed() {
+        doAnswer(invocation -> {
+            Consumer<Vacancy> action = invocation.getArgument(0);
+            action.accept(new Vacancy(7, "Ведущий разработчик", "Ёлки", LocalDateTime.now(), true, 1, 1));
+            return null;
+        }).when(vacancyRepository).scanAll(any());
+
+        searchIndex.rebuild();
+
+        assertThat(searchIndex.search(SearchType.VACANCY, "елки", 0, 10)).extracting("id").containsExactly(7);
+    }
+
+    @Test
+    public void whenSearchByPrefixThenAllCompletionsFound() {
+        searchIndex.put(SearchType.CANDIDATE, 1, "Java", "");
+        searchIndex.put(SearchType.CANDIDATE, 2, "JavaScript", "");
+        searchIndex.put(SearchType.CANDIDATE, 3, "Jakarta", "");
+
+        var hits = searchIndex.search(SearchType.CANDIDATE, "jav*", 0, 10);
+
+        assertThat(hits).extracting("id").containsExactlyInAnyOrder(1, 2);
+        assertThat(searchIndex.search(SearchType.CANDIDATE, "jav", 0, 10)).isEmpty();
+    }
+
+    @Test
+    public void whenPrefixMatchesTooManyTermsThenOnlyFirstTermsSearched() {
+        for (int id = 0; id <= MemorySearchIndex.MAX_PREFIX_TERMS; id++) {
+            searchIndex.put(SearchType.CANDIDATE, id, "term" + String.format("%03d", id), "");
+        }
+
+        var hits = searchIndex.search(SearchType.CANDIDATE, "term*", 0, 1000);
+
+        assertThat(hits).hasSize(MemorySearchIndex.MAX_PREFIX_TERMS);
+        assertThat(hits).extracting("id").doesNotContain(MemorySearchIndex.MAX_PREFIX_TERMS);
+    }
+
+    @Test
+    public void whenSearchWithOrThenDocumentsWithAnyClauseFound() {
+        searchIndex.put(SearchType.CANDIDATE, 1, "Java", "Spring");
+        searchIndex.put(SearchType.CANDIDATE, 2, "Kotlin", "Ktor");
+        searchIndex.put(SearchType.CANDIDATE, 3, "Go", "Gin");
+
+        var hits = searchIndex.search(SearchType.CANDIDATE, "java spring OR kotlin", 0, 10);
+        var pipeHits = searchIndex.search(SearchType.CANDIDATE, "gin | ktor", 0, 10);
+
+        assertThat(hits).extracting("id").containsExactlyInAnyOrder(1, 2);
+        assertThat(pipeHits).extracting("id").containsExactlyInAnyOrder(2, 3);
+    }
+
+    @Test
+    public void whenDocumentsIndexedThenMemoryReported() {
+        searchIndex.put(SearchType.CANDIDATE, 1, "Java", "Spring Hibernate");
+        searchIndex.put(SearchType.CANDIDATE, 2, "Java", "Spring Boot");
+        searchIndex.remove(SearchType.CANDIDATE, 3);
+
+        var stats = searchIndex.getStats(SearchType.CANDIDATE);
+
+        assertThat(stats.getDocuments()).isEqualTo(2);
+        assertThat(stats.getTerms()).isEqualTo(4);
+        assertThat(stats.getPostings()).isEqualTo(6);
+        assertThat(stats.getBytesPerDocument()).isPositive();
+    }
+}
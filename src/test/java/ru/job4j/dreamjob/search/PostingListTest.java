@@ -0,0 +1,59 @@
+package ru.job4j.dreamjob.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostingListTest {
+
+    private static int[] ids(PostingList list) {
+        var ids = new int[list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            ids[i] = list.id(i);
+        }
+        return ids;
+    }
+
+    @Test
+    public void whenPutOutOfOrderThenIdsSorted() {
+        var list = new PostingList();
+        list.put(5, 1);
+        list.put(1, 2);
+        list.put(3, 3);
+        list.put(3, 4);
+
+        assertThat(ids(list)).containsExactly(1, 3, 5);
+        assertThat(list.weight(1)).isEqualTo(4);
+    }
+
+    @Test
+    public void whenRemoveThenIdSkippedAndSeekMovesForward() {
+        var list = new PostingList();
+        for (int id = 1; id <= 10; id++) {
+            list.put(id * 2, 1);
+        }
+        list.remove(4);
+        list.remove(7);
+
+        assertThat(list.size()).isEqualTo(9);
+        assertThat(list.id(list.seek(4, 0))).isEqualTo(6);
+        assertThat(list.seek(21, 0)).isEqualTo(list.size());
+    }
+
+    @Test
+    public void whenUnionThenWeightsOfSameDocumentSummed() {
+        var first = new PostingList();
+        first.put(1, 1);
+        first.put(3, 2);
+        var second = new PostingList();
+        second.put(2, 5);
+        second.put(3, 4);
+
+        var union = PostingList.union(List.of(first, second));
+
+        assertThat(ids(union)).containsExactly(1, 2, 3);
+        assertThat(union.weight(2)).isEqualTo(6);
+    }
+}
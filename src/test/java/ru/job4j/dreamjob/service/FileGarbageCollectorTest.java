@@ -0,0 +1,54 @@
+package ru.job4j.dreamjob.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.dto.FileCleanupReportDto;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileGarbageCollectorTest {
+
+    private FileService fileService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FileGarbageCollector garbageCollector;
+
+    @BeforeEach
+    public void initCollector() {
+        fileService = mock(FileService.class);
+        garbageCollector = new FileGarbageCollector(fileService, 10, 100, 0);
+        garbageCollector.bindTo(meterRegistry);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    @Test
+    public void whenNotCollectedYetThenGaugesAreNaN() {
+        assertThat(gauge("dreamjob.file.gc.last.rows.deleted")).isNaN();
+        assertThat(gauge("dreamjob.file.gc.last.freed")).isNaN();
+    }
+
+    @Test
+    public void whenCollectedThenGaugesShowLastReport() {
+        when(fileService.collectGarbage(10, 100, 0))
+                .thenReturn(Optional.of(new FileCleanupReportDto(2, 30, 4, 500, 70)))
+                .thenReturn(Optional.empty());
+
+        garbageCollector.collect();
+        garbageCollector.collect();
+
+        assertThat(gauge("dreamjob.file.gc.last.rows.deleted")).isEqualTo(2);
+        assertThat(gauge("dreamjob.file.gc.last.blobs.scanned")).isEqualTo(30);
+        assertThat(gauge("dreamjob.file.gc.last.blobs.deleted")).isEqualTo(4);
+        assertThat(gauge("dreamjob.file.gc.last.freed")).isEqualTo(500);
+        assertThat(gauge("dreamjob.file.gc.last.duration")).isEqualTo(70);
+    }
+}
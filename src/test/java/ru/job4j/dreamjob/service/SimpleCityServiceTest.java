@@ -0,0 +1,55 @@
+package ru.job4j.dreamjob.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.model.City;
+import ru.job4j.dreamjob.repository.CityRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimpleCityServiceTest {
+
+    private CityRepository cityRepository;
+
+    private SimpleCityService cityService;
+
+    @BeforeEach
+    public void initService() {
+        cityRepository = mock(CityRepository.class);
+        when(cityRepository.findAll()).thenReturn(List.of(new City(1, "Москва"), new City(2, "Казань")));
+        cityService = new SimpleCityService(cityRepository);
+        cityService.refresh();
+    }
+
+    @Test
+    public void whenReadSeveralTimesThenRepositoryQueriedOnce() {
+        var cities = cityService.findAll();
+
+        assertThat(cityService.findAll()).isSameAs(cities).extracting(City::getName).containsExactly("Москва", "Казань");
+        verify(cityRepository, times(1)).findAll();
+    }
+
+    @Test
+    public void whenRefreshThenNewCitiesVisible() {
+        when(cityRepository.findAll()).thenReturn(List.of(new City(3, "Самара")));
+
+        cityService.refresh();
+
+        assertThat(cityService.findAll()).extracting(City::getId).containsExactly(3);
+    }
+
+    @Test
+    public void whenScheduledRefreshFailsThenPreviousSnapshotKept() {
+        when(cityRepository.findAll()).thenThrow(new IllegalStateException("connection refused"));
+
+        cityService.scheduledRefresh();
+
+        assertThat(cityService.findAll()).extracting(City::getId).containsExactly(1, 2);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.job4j.dreamjob.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.CandidateRepository;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class SimpleExportServiceTest {
+
+    private static final LocalDateTime CREATION_DATE = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    private SimpleExportService exportService;
+
+    @BeforeEach
+    public void initService() {
+        var vacancyRepository = mock(VacancyRepository.class);
+        doAnswer(invocation -> {
+            Consumer<Vacancy> action = invocation.getArgument(0);
+            action.accept(new Vacancy(1, "Java", "Spring, \"Boot\"", CREATION_DATE, true, 1, 2));
+            action.accept(new Vacancy(2, "Go", "Gin", CREATION_DATE, false, 2, 0));
+            return null;
+        }).when(vacancyRepository).scanAll(any());
+        var candidateRepository = mock(CandidateRepository.class);
+        doAnswer(invocation -> {
+            Consumer<Candidate> action = invocation.getArgument(0);
+            action.accept(new Candidate(3, "Иван", "Первая строка\nвторая", CREATION_DATE, 1, 0));
+            return null;
+        }).when(candidateRepository).scanAll(any());
+        var objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new SimpleExportService(vacancyRepository, candidateRepository, objectMapper);
+    }
+
+    @Test
+    public void whenExportCsvThenHeaderAndEscapedRows() {
+        var output = new ByteArrayOutputStream();
+
+        exportService.exportVacancies(output, DataFormat.CSV);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,title,description,creation_date,visible,city_id,file_id\n"
+                        + "1,Java,\"Spring, \"\"Boot\"\"\",2024-05-01T10:00,true,1,2\n"
+                        + "2,Go,Gin,2024-05-01T10:00,false,2,0\n");
+    }
+
+    @Test
+    public void whenExportNdjsonThenObjectPerLine() throws Exception {
+        var output = new ByteArrayOutputStream();
+
+        exportService.exportCandidates(output, DataFormat.NDJSON);
+
+        var lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        var candidate = new ObjectMapper().findAndRegisterModules().readValue(lines[0], Candidate.class);
+        assertThat(lines).hasSize(1);
+        assertThat(candidate.getName()).isEqualTo("Иван");
+        assertThat(candidate.getDescription()).isEqualTo("Первая строка\nвторая");
+        assertThat(candidate.getCreationDate()).isEqualTo(CREATION_DATE);
+    }
+}
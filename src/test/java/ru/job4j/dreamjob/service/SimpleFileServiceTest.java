@@ -0,0 +1,388 @@
+package ru.job4j.dreamjob.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.cache.FileCache;
+import ru.job4j.dreamjob.cache.LoopbackInvalidationBus;
+import ru.job4j.dreamjob.configuration.ConnectionPoolProperties;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.configuration.FileStorageProperties;
+import ru.job4j.dreamjob.dto.FileCleanupReportDto;
+import ru.job4j.dreamjob.metrics.FileMetrics;
+import ru.job4j.dreamjob.metrics.StatementMetrics;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.FileRepository;
+import ru.job4j.dreamjob.repository.MemoryFileRepository;
+import ru.job4j.dreamjob.repository.Sql2oFileRepository;
+import ru.job4j.dreamjob.repository.Sql2oVacancyRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class SimpleFileServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    private final MemoryFileRepository fileRepository = new MemoryFileRepository();
+
+    private final ThumbnailService thumbnailService = mock(ThumbnailService.class);
+
+    private final AsyncFileWriter fileWriter = new AsyncFileWriter(1, 10);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    public void stopWriter() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        fileWriter.shutdown();
+    }
+
+    private SimpleFileService createService(boolean contentAddressed, int directoryLevels) {
+        return createService(fileRepository, contentAddressed, directoryLevels);
+    }
+
+    private SimpleFileService createService(FileRepository repository, boolean contentAddressed, int directoryLevels) {
+        return new SimpleFileService(repository, new FileStorageProperties(directory.toString(), contentAddressed, directoryLevels),
+                new FileCache(1024, 1024), thumbnailService, fileWriter, new FileMetrics(meterRegistry));
+    }
+
+    /* ссылки вакансий на файлы видит только репозиторий на базе, как в тестах репозиториев */
+    private static Sql2o openDatabase() throws IOException {
+        var properties = new Properties();
+        try (var inputStream = SimpleFileServiceTest.class.getClassLoader().getResourceAsStream("connection.properties")) {
+            properties.load(inputStream);
+        }
+        var configuration = new DatasourceConfiguration();
+        var datasource = configuration.connectionPool(properties.getProperty("datasource.url"),
+                properties.getProperty("datasource.username"), properties.getProperty("datasource.password"),
+                new ConnectionPoolProperties());
+        return configuration.databaseClient(datasource,
+                new StatementMetrics(new SimpleMeterRegistry(), Duration.ofSeconds(1), 100));
+    }
+
+    private Path writeOldBlob(String name, String text) throws IOException {
+        var path = directory.resolve(name.substring(0, 2)).resolve(name.substring(2, 4)).resolve(name);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, text);
+        Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1)));
+        return path;
+    }
+
+    private static ByteArrayInputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /* перенос из промежуточного каталога идёт в фоне */
+    private void awaitWritten(File file) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (fileWriter.findPending(file.getPath()).isPresent() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(Path.of(file.getPath())).exists();
+    }
+
+    /* вместо менеджера транзакций завершение вызывается вручную, как это сделал бы Spring */
+    private void completeTransaction(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private long countStagedFiles() throws Exception {
+        try (var files = Files.list(directory.resolve("tmp"))) {
+            return files.count();
+        }
+    }
+
+    private String read(SimpleFileService fileService, int id) {
+        return new String(fileService.getFileById(id).orElseThrow().getContent(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void whenFileSavedAndReadThenBytesCounted() throws InterruptedException {
+        var fileService = createService(false, 2);
+
+        var file = fileService.save("file.txt", content("12345"));
+        awaitWritten(file);
+        read(fileService, file.getId());
+
+        assertThat(meterRegistry.get("dreamjob.file.written").counter().count()).isEqualTo(5.0);
+        assertThat(meterRegistry.get("dreamjob.file.read").counter().count()).isEqualTo(5.0);
+    }
+
+    @Test
+    public void whenSameContentUploadedTwiceThenStoredOnce() throws InterruptedException {
+        var fileService = createService(true, 2);
+
+        var first = fileService.save("first.txt", content("same bytes"));
+        var second = fileService.save("second.txt", content("same bytes"));
+        awaitWritten(first);
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(Path.of(first.getPath()).getFileName().toString()).isEqualTo(first.getChecksum());
+        assertThat(fileRepository.findPage(0, 10)).hasSize(1);
+        assertThat(read(fileService, first.getId())).isEqualTo("same bytes");
+    }
+
+    @Test
+    public void whenNotContentAddressedThenSameContentStoredTwice() throws InterruptedException {
+        var fileService = createService(false, 2);
+
+        var first = fileService.save("first.txt", content("same bytes"));
+        var second = fileService.save("second.txt", content("same bytes"));
+        awaitWritten(first);
+        awaitWritten(second);
+
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(second.getPath()).isNotEqualTo(first.getPath());
+        assertThat(second.getChecksum()).isEqualTo(first.getChecksum());
+    }
+
+    @Test
+    public void whenSharedFileDeletedThenBlobKeptUntilLastReference() throws InterruptedException {
+        var fileService = createService(true, 2);
+        var file = fileService.save("first.txt", content("shared"));
+        fileService.save("second.txt", content("shared"));
+        awaitWritten(file);
+
+        fileService.deleteById(file.getId());
+
+        assertThat(Path.of(file.getPath())).exists();
+        assertThat(read(fileService, file.getId())).isEqualTo("shared");
+        verify(thumbnailService, never()).deleteThumbnails(file.getPath());
+
+        fileService.deleteById(file.getId());
+
+        assertThat(Path.of(file.getPath())).doesNotExist();
+        assertThat(fileService.getFileById(file.getId())).isEmpty();
+        verify(thumbnailService).deleteThumbnails(file.getPath());
+    }
+
+    @Test
+    public void whenLayoutMigratedThenFilesMovedAndStillReadable() throws InterruptedException {
+        var flatService = createService(false, 0);
+        var moved = flatService.save("moved.txt", content("moved"));
+        var lost = flatService.save("lost.txt", content("lost"));
+        awaitWritten(moved);
+        awaitWritten(lost);
+        var oldPath = Path.of(moved.getPath());
+        assertThat(oldPath.getParent()).isEqualTo(directory);
+        Path.of(lost.getPath()).toFile().delete();
+        var fileService = createService(false, 2);
+
+        var migrated = fileService.migrateLayout(1);
+
+        var newPath = Path.of(fileRepository.findById(moved.getId()).orElseThrow().getPath());
+        assertThat(migrated).isEqualTo(1);
+        assertThat(newPath).exists().isNotEqualTo(oldPath);
+        assertThat(directory.relativize(newPath).getNameCount()).isEqualTo(3);
+        assertThat(oldPath).doesNotExist();
+        assertThat(read(fileService, moved.getId())).isEqualTo("moved");
+        assertThat(fileRepository.findById(lost.getId()).orElseThrow().getPath()).isEqualTo(lost.getPath());
+        verify(thumbnailService).deleteThumbnails(oldPath.toString());
+        assertThat(fileService.migrateLayout(1)).isZero();
+    }
+
+    @Test
+    public void whenMigrationInterruptedAfterLinkThenRowUpdatedOnNextRun() throws Exception {
+        var flatService = createService(false, 0);
+        var file = flatService.save("file.txt", content("linked"));
+        awaitWritten(file);
+        var oldPath = Path.of(file.getPath());
+        var fileName = oldPath.getFileName().toString();
+        var newPath = directory.resolve(fileName.substring(0, 2)).resolve(fileName.substring(2, 4)).resolve(fileName);
+        Files.createDirectories(newPath.getParent());
+        Files.createLink(newPath, oldPath);
+        var fileService = createService(false, 2);
+
+        assertThat(fileService.migrateLayout(10)).isEqualTo(1);
+
+        assertThat(fileRepository.findById(file.getId()).orElseThrow().getPath()).isEqualTo(newPath.toString());
+        assertThat(oldPath).doesNotExist();
+        assertThat(read(fileService, file.getId())).isEqualTo("linked");
+    }
+
+    @Test
+    public void whenTransactionRolledBackThenStagedFileDeleted() throws Exception {
+        var fileService = createService(false, 2);
+        TransactionSynchronizationManager.initSynchronization();
+
+        var file = fileService.save("file.txt", content("rolled back"));
+        var stagedBeforeCompletion = countStagedFiles();
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(stagedBeforeCompletion).isEqualTo(1);
+        assertThat(countStagedFiles()).isZero();
+        assertThat(Path.of(file.getPath())).doesNotExist();
+        verify(thumbnailService, never()).generate(file);
+    }
+
+    @Test
+    public void whenTransactionCommittedThenStagedFileMovedToStorage() throws Exception {
+        var fileService = createService(false, 2);
+        TransactionSynchronizationManager.initSynchronization();
+
+        var file = fileService.save("file.txt", content("committed"));
+        assertThat(Path.of(file.getPath())).doesNotExist();
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        awaitWritten(file);
+
+        assertThat(countStagedFiles()).isZero();
+        assertThat(read(fileService, file.getId())).isEqualTo("committed");
+    }
+
+    @Test
+    public void whenRestartedWithStagedFilesThenCommittedMovedAndOrphansDeleted() throws Exception {
+        var fileService = createService(false, 2);
+        TransactionSynchronizationManager.initSynchronization();
+        var file = fileService.save("file.txt", content("recovered"));
+        /* остановка после фиксации, но до переноса файла */
+        TransactionSynchronizationManager.clearSynchronization();
+        Files.writeString(directory.resolve("tmp").resolve(UUID.randomUUID() + ".2.orphan.txt"), "orphan");
+        assertThat(countStagedFiles()).isEqualTo(2);
+
+        createService(false, 2).recoverStagedFiles();
+
+        assertThat(countStagedFiles()).isZero();
+        assertThat(Path.of(file.getPath())).hasContent("recovered");
+    }
+
+    @Test
+    public void whenRestartedWithOtherDirectoryLevelsThenStagedFileMovedToCommittedPath() throws Exception {
+        var fileService = createService(false, 2);
+        TransactionSynchronizationManager.initSynchronization();
+        var file = fileService.save("file.txt", content("recovered"));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        createService(false, 1).recoverStagedFiles();
+
+        assertThat(countStagedFiles()).isZero();
+        assertThat(Path.of(file.getPath())).hasContent("recovered");
+        assertThat(directory.relativize(Path.of(file.getPath())).getNameCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void whenStagedFileWithoutLevelsHasNoRowThenKept() throws Exception {
+        var staged = directory.resolve("tmp").resolve(UUID.randomUUID() + ".legacy.txt");
+        Files.createDirectories(staged.getParent());
+        Files.writeString(staged, "legacy");
+
+        createService(false, 2).recoverStagedFiles();
+
+        assertThat(staged).hasContent("legacy");
+    }
+
+    @Test
+    public void whenSameContentUploadedBeforeDeleteCompletesThenBlobKept() throws Exception {
+        var fileService = createService(true, 2);
+        var deleted = fileService.save("deleted.txt", content("same bytes"));
+        awaitWritten(deleted);
+        TransactionSynchronizationManager.initSynchronization();
+        fileService.deleteById(deleted.getId());
+        var deleteCompletion = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        var uploaded = fileService.save("uploaded.txt", content("same bytes"));
+        awaitWritten(uploaded);
+        deleteCompletion.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(uploaded.getPath()).isEqualTo(deleted.getPath());
+        assertThat(Path.of(uploaded.getPath())).exists();
+        assertThat(read(fileService, uploaded.getId())).isEqualTo("same bytes");
+        verify(thumbnailService, never()).deleteThumbnails(uploaded.getPath());
+    }
+
+    @Test
+    public void whenCollectGarbageThenOrphanedRowsAndOldBlobsDeleted() throws Exception {
+        var sql2o = openDatabase();
+        var sql2oFileRepository = new Sql2oFileRepository(sql2o);
+        var vacancyRepository = new Sql2oVacancyRepository(sql2o, new LoopbackInvalidationBus());
+        var fileService = createService(sql2oFileRepository, false, 2);
+        var orphanedRow = fileService.save("orphaned.txt", content("orphaned row"));
+        var referenced = fileService.save("referenced.txt", content("referenced"));
+        awaitWritten(orphanedRow);
+        awaitWritten(referenced);
+        var vacancy = vacancyRepository.save(new Vacancy(0, "title", "description", LocalDateTime.now(), true, 1,
+                referenced.getId()));
+        Files.setLastModifiedTime(Path.of(referenced.getPath()), FileTime.fromMillis(0));
+        var orphanedBlob = writeOldBlob("orphanedblob.txt", "orphaned blob");
+        var youngBlob = directory.resolve("youngblob.txt");
+        Files.writeString(youngBlob, "young blob");
+        try {
+            var report = fileService.collectGarbage(1, 1000, TimeUnit.MINUTES.toMillis(1)).orElseThrow();
+
+            /* база общая с тестами репозиториев, в ней могут остаться и другие строки без ссылок */
+            assertThat(report.getRowsDeleted()).isGreaterThanOrEqualTo(1);
+            assertThat(report.getBlobsScanned()).isEqualTo(2);
+            assertThat(report.getBlobsDeleted()).isEqualTo(1);
+            assertThat(report.getBytesFreed()).isEqualTo("orphaned row".length() + "orphaned blob".length());
+            assertThat(sql2oFileRepository.findById(orphanedRow.getId())).isEmpty();
+            assertThat(Path.of(orphanedRow.getPath())).doesNotExist();
+            verify(thumbnailService).deleteThumbnails(orphanedRow.getPath());
+            assertThat(orphanedBlob).doesNotExist();
+            assertThat(youngBlob).exists();
+            assertThat(Path.of(referenced.getPath())).exists();
+            assertThat(read(fileService, referenced.getId())).isEqualTo("referenced");
+        } finally {
+            vacancyRepository.deleteById(vacancy.getId());
+            sql2oFileRepository.deleteById(referenced.getId());
+        }
+    }
+
+    @Test
+    public void whenMigrationRunningThenGarbageCollectionSkipped() throws Exception {
+        var migrationStarted = new CountDownLatch(1);
+        var finishMigration = new CountDownLatch(1);
+        var blockingRepository = new MemoryFileRepository() {
+            @Override
+            public Collection<File> findPage(int afterId, int limit) {
+                migrationStarted.countDown();
+                try {
+                    finishMigration.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findPage(afterId, limit);
+            }
+        };
+        var fileService = createService(blockingRepository, false, 2);
+        var orphanedBlob = writeOldBlob("orphanedblob.txt", "orphaned blob");
+        var migration = CompletableFuture.supplyAsync(() -> fileService.migrateLayout(10));
+        assertThat(migrationStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        var skipped = fileService.collectGarbage(10, 1000, 0);
+        finishMigration.countDown();
+        migration.get(5, TimeUnit.SECONDS);
+        var collected = fileService.collectGarbage(10, 1000, 0);
+
+        assertThat(skipped).isEmpty();
+        assertThat(collected).map(FileCleanupReportDto::getBlobsDeleted).contains(1L);
+        assertThat(orphanedBlob).doesNotExist();
+    }
+}
@@ -0,0 +1,106 @@
+package ru.job4j.dreamjob.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.job4j.dreamjob.model.Vacancy;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SimpleImportServiceTest {
+
+    private final List<List<Vacancy>> savedBatches = new ArrayList<>();
+
+    private VacancyService vacancyService;
+
+    private SimpleImportService importService;
+
+    @BeforeEach
+    public void initService() {
+        vacancyService = mock(VacancyService.class);
+        when(vacancyService.saveAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<Vacancy> vacancies = invocation.getArgument(0);
+            savedBatches.add(List.copyOf(vacancies));
+            return vacancies;
+        });
+        when(vacancyService.updateAll(anyCollection())).thenAnswer(invocation -> {
+            Collection<Vacancy> vacancies = invocation.getArgument(0);
+            return vacancies.stream().filter(vacancy -> vacancy.getId() == 1).toList();
+        });
+        importService = new SimpleImportService(vacancyService, mock(CandidateService.class),
+                new ObjectMapper().findAndRegisterModules(), mock(PlatformTransactionManager.class), 2);
+    }
+
+    private static ByteArrayInputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void whenImportCsvThenRowsSavedInBatches() {
+        var csv = "title,description,visible,city_id\n"
+                + "Java,\"Spring, Hibernate\",true,1\n"
+                + "Go,\"Говорят \"\"быстро\"\"\",false,2\n"
+                + "Rust,Tokio,true,1\n";
+
+        var report = importService.importVacancies(input(csv), DataFormat.CSV);
+
+        assertThat(report.getCreated()).isEqualTo(3);
+        assertThat(report.getFailed()).isZero();
+        assertThat(savedBatches).hasSize(2);
+        assertThat(savedBatches.get(0).get(0).getDescription()).isEqualTo("Spring, Hibernate");
+        assertThat(savedBatches.get(0).get(1).getDescription()).isEqualTo("Говорят \"быстро\"");
+        assertThat(savedBatches.get(0).get(1).getVisible()).isFalse();
+    }
+
+    @Test
+    public void whenImportNdjsonThenNewRowsSavedAndExistingUpdated() {
+        var ndjson = """
+                {"title":"Java","description":"Spring","cityId":1,"fileId":42}
+                {"id":1,"title":"Kotlin","description":"Ktor","cityId":1}
+                {"id":9,"title":"Scala","description":"Akka","cityId":1}
+                """;
+
+        var report = importService.importVacancies(input(ndjson), DataFormat.NDJSON);
+
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(savedBatches.get(0).get(0).getFileId()).isZero();
+    }
+
+    @Test
+    public void whenLinesInvalidThenReportedAndOthersImported() {
+        var ndjson = """
+                {"title":"Java","description":"Spring","cityId":1}
+                not json
+                {"title":"","description":"Empty title","cityId":1}
+                """;
+
+        var report = importService.importVacancies(input(ndjson), DataFormat.NDJSON);
+
+        assertThat(report.getCreated()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.getErrors()).hasSize(2).allMatch(error -> error.startsWith("строка "));
+    }
+
+    @Test
+    public void whenBatchRejectedThenWholeBatchCountedAsFailed() {
+        when(vacancyService.saveAll(anyCollection())).thenThrow(new IllegalStateException("foreign key violation"));
+
+        var report = importService.importVacancies(input("title,description,city_id\nJava,Spring,99\n"), DataFormat.CSV);
+
+        assertThat(report.getCreated()).isZero();
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).containsExactly("строки 2-2: foreign key violation");
+    }
+}
@@ -0,0 +1,157 @@
+package ru.job4j.dreamjob.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.job4j.dreamjob.model.File;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimpleThumbnailServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    private final SimpleThumbnailService thumbnailService = new SimpleThumbnailService(1, 10, 1_000_000);
+
+    @AfterEach
+    public void stopExecutor() {
+        thumbnailService.shutdown();
+    }
+
+    private File writeImage(String name, int width, int height) throws IOException {
+        var path = directory.resolve(name);
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", path.toFile());
+        return new File(name, path.toString());
+    }
+
+    /* PNG только с заголовком IHDR: размеры объявлены, но пикселей нет */
+    private File writePngHeader(String name, int width, int height) throws IOException {
+        var header = new ByteArrayOutputStream();
+        var ihdr = new DataOutputStream(header);
+        ihdr.writeBytes("IHDR");
+        ihdr.writeInt(width);
+        ihdr.writeInt(height);
+        ihdr.write(new byte[] {8, 2, 0, 0, 0});
+        var crc = new CRC32();
+        crc.update(header.toByteArray());
+        var content = new ByteArrayOutputStream();
+        var output = new DataOutputStream(content);
+        output.write(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'});
+        output.writeInt(13);
+        output.write(header.toByteArray());
+        output.writeInt((int) crc.getValue());
+        var path = directory.resolve(name);
+        Files.write(path, content.toByteArray());
+        return new File(name, path.toString());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private Optional<Path> awaitThumbnail(File file, ThumbnailSize size) throws InterruptedException {
+        await(() -> thumbnailService.findThumbnail(file, size).isPresent());
+        return thumbnailService.findThumbnail(file, size);
+    }
+
+    @Test
+    public void whenImageGeneratedThenThumbnailsFitSizesKeepingRatio() throws Exception {
+        var file = writeImage("photo.png", 960, 480);
+
+        thumbnailService.generate(file);
+        var small = ImageIO.read(awaitThumbnail(file, ThumbnailSize.SMALL).orElseThrow().toFile());
+        var medium = ImageIO.read(awaitThumbnail(file, ThumbnailSize.MEDIUM).orElseThrow().toFile());
+
+        assertThat(small.getWidth()).isEqualTo(160);
+        assertThat(small.getHeight()).isEqualTo(80);
+        assertThat(medium.getWidth()).isEqualTo(480);
+        assertThat(medium.getHeight()).isEqualTo(240);
+    }
+
+    @Test
+    public void whenImageSmallerThanSizeThenNotEnlarged() throws Exception {
+        var file = writeImage("icon.png", 100, 50);
+
+        thumbnailService.generate(file);
+        var medium = ImageIO.read(awaitThumbnail(file, ThumbnailSize.MEDIUM).orElseThrow().toFile());
+
+        assertThat(medium.getWidth()).isEqualTo(100);
+        assertThat(medium.getHeight()).isEqualTo(50);
+    }
+
+    @Test
+    public void whenDeleteThumbnailsThenAllSizesRemoved() throws Exception {
+        var file = writeImage("photo.png", 960, 480);
+        thumbnailService.generate(file);
+        var small = awaitThumbnail(file, ThumbnailSize.SMALL).orElseThrow();
+        var medium = awaitThumbnail(file, ThumbnailSize.MEDIUM).orElseThrow();
+
+        thumbnailService.deleteThumbnails(file.getPath());
+
+        assertThat(small).doesNotExist();
+        assertThat(medium).doesNotExist();
+        assertThat(Path.of(file.getPath())).exists();
+    }
+
+    @Test
+    public void whenThumbnailPathThenOriginalPathFound() {
+        var original = directory.resolve("ab").resolve("photo.png").toString();
+
+        assertThat(thumbnailService.findOriginalPath(original + ".small.jpg")).contains(original);
+        assertThat(thumbnailService.findOriginalPath(original + ".medium.jpg.tmp")).contains(original);
+        assertThat(thumbnailService.findOriginalPath(original)).isEmpty();
+    }
+
+    @Test
+    public void whenImageCannotBeDecodedThenRememberedAndNotRetried() throws Exception {
+        var path = directory.resolve("broken.png");
+        Files.writeString(path, "not an image", StandardCharsets.UTF_8);
+        var file = new File("broken.png", path.toString());
+
+        thumbnailService.generate(file);
+        await(() -> thumbnailService.isFailed(file.getPath()));
+        ImageIO.write(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB), "png", path.toFile());
+        thumbnailService.findThumbnail(file, ThumbnailSize.SMALL);
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        assertThat(thumbnailService.findThumbnail(file, ThumbnailSize.SMALL)).isEmpty();
+    }
+
+    @Test
+    public void whenDeclaredDimensionsAboveLimitThenNotDecoded() throws Exception {
+        var file = writePngHeader("huge.png", 100_000, 100_000);
+
+        thumbnailService.generate(file);
+        await(() -> thumbnailService.isFailed(file.getPath()));
+
+        assertThat(thumbnailService.findThumbnail(file, ThumbnailSize.SMALL)).isEmpty();
+    }
+
+    @Test
+    public void whenFormatNotReadableByImageIoThenSkipped() throws Exception {
+        var path = directory.resolve("logo.svg");
+        Files.writeString(path, "<svg xmlns=\"http://www.w3.org/2000/svg\"/>", StandardCharsets.UTF_8);
+        var file = new File("logo.svg", path.toString());
+
+        assertThat(thumbnailService.findThumbnail(file, ThumbnailSize.SMALL)).isEmpty();
+        assertThat(thumbnailService.isFailed(file.getPath())).isFalse();
+    }
+}
@@ -0,0 +1,39 @@
+package ru.job4j.dreamjob.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.job4j.dreamjob.dto.RequestTraceDto;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TraceExporterTest {
+
+    @TempDir
+    private Path directory;
+
+    private static RequestTraceDto trace(double durationMillis) {
+        return new RequestTraceDto("id", "GET", "/", 200, LocalDateTime.now(), durationMillis, List.of());
+    }
+
+    @Test
+    public void whenQueueFullThenDroppedTracesCounted() {
+        var meterRegistry = new SimpleMeterRegistry();
+        /* поток записи не запущен, поэтому очередь только заполняется */
+        var exporter = new TraceExporter(new ObjectMapper(), directory.resolve("traces.ndjson").toString(), Duration.ofMillis(10));
+        exporter.bindTo(meterRegistry);
+
+        for (int i = 0; i < 1002; i++) {
+            exporter.export(trace(20));
+        }
+        exporter.export(trace(5));
+
+        assertThat(meterRegistry.get("dreamjob.tracing.export.dropped").functionCounter().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.job4j.dreamjob.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.dto.RequestTraceDto;
+import ru.job4j.dreamjob.dto.SpanDto;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TracerTest {
+
+    private Tracer createTracer(int bufferSize) {
+        return new Tracer(true, bufferSize, 100, new TraceExporter(new ObjectMapper(), "", Duration.ZERO));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void whenSpansNestedThenSelfTimeExcludesChildren() {
+        var tracer = createTracer(10);
+
+        assertThat(tracer.begin("GET", "/vacancies/1")).isTrue();
+        try (var service = tracer.start("SimpleVacancyService.findById", Tracer.SERVICE)) {
+            try (var repository = tracer.start("Sql2oVacancyRepository.findById", Tracer.REPOSITORY)) {
+                sleep(20);
+            }
+        }
+        var trace = tracer.end(200);
+
+        assertThat(trace.getStatus()).isEqualTo(200);
+        assertThat(trace.getSpans()).extracting(SpanDto::getName, SpanDto::getDepth)
+                .containsExactly(tuple("SimpleVacancyService.findById", 0),
+                        tuple("Sql2oVacancyRepository.findById", 1));
+        var service = trace.getSpans().get(0);
+        var repository = trace.getSpans().get(1);
+        assertThat(repository.getSelfMillis()).isGreaterThanOrEqualTo(20);
+        assertThat(service.getDurationMillis()).isGreaterThanOrEqualTo(repository.getDurationMillis());
+        assertThat(service.getSelfMillis()).isLessThan(repository.getSelfMillis());
+        assertThat(trace.getDurationMillis()).isGreaterThanOrEqualTo(service.getDurationMillis());
+    }
+
+    @Test
+    public void whenServerTimingThenSelfTimeGroupedByLayer() {
+        var tracer = createTracer(10);
+
+        tracer.begin("GET", "/vacancies");
+        tracer.start("AuthorizationFilter", Tracer.FILTER).close();
+        tracer.start("SessionFilter", Tracer.FILTER).close();
+        tracer.start("SimpleCityService.findAll", Tracer.SERVICE).close();
+        var unfinished = tracer.start("vacancies/list", Tracer.RENDER);
+        var serverTiming = tracer.getServerTiming();
+        unfinished.close();
+        tracer.end(200);
+
+        assertThat(serverTiming)
+                .matches("filter;dur=\\d+\\.\\d{2}, service;dur=\\d+\\.\\d{2}, total;dur=\\d+\\.\\d{2}");
+    }
+
+    @Test
+    public void whenNoActiveTraceThenSpansIgnored() {
+        var tracer = createTracer(10);
+
+        try (var span = tracer.start("SimpleCityService.findAll", Tracer.SERVICE)) {
+            assertThat(span).isSameAs(Span.NOOP);
+        }
+
+        assertThat(tracer.getServerTiming()).isEmpty();
+        assertThat(tracer.findSlowest(10)).isEmpty();
+    }
+
+    @Test
+    public void whenTraceAlreadyActiveThenBeginReturnsFalse() {
+        var tracer = createTracer(10);
+
+        assertThat(tracer.begin("GET", "/vacancies")).isTrue();
+        assertThat(tracer.begin("GET", "/error")).isFalse();
+        tracer.end(500);
+
+        assertThat(tracer.findSlowest(10)).extracting(RequestTraceDto::getUri).containsExactly("/vacancies");
+    }
+
+    @Test
+    public void whenBufferFullThenOldestOverwrittenAndSlowestFirst() {
+        var tracer = createTracer(2);
+
+        for (var millis : new int[] {30, 1, 10}) {
+            tracer.begin("GET", "/sleep/" + millis);
+            sleep(millis);
+            tracer.end(200);
+        }
+
+        assertThat(tracer.findSlowest(10)).extracting(RequestTraceDto::getUri).containsExactly("/sleep/10", "/sleep/1");
+        assertThat(tracer.findSlowest(1)).extracting(RequestTraceDto::getUri).containsExactly("/sleep/10");
+    }
+}